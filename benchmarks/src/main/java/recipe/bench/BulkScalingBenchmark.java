@@ -0,0 +1,80 @@
+package recipe.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import recipe.common.BulkScaler;
+import recipe.common.Recipe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling a whole catalog: Recipe.scaled per recipe against BulkScaler's packed arrays
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkScalingBenchmark {
+
+    @Param({"10000"})
+    public int recipes;
+
+    private List<Recipe> catalog;
+    private BulkScaler scaler;
+    private double[] factors;
+
+    @Setup
+    public void setUp() {
+        CatalogGenerator generator = new CatalogGenerator(11);
+        catalog = new ArrayList<>();
+        for (int i = 0; i < recipes; i++) {
+            catalog.add(generator.recipe(i));
+        }
+        scaler = BulkScaler.of(catalog);
+        factors = new double[recipes];
+        for (int i = 0; i < recipes; i++) {
+            factors[i] = 0.5 + (i % 8) * 0.25;
+        }
+    }
+
+    @Benchmark
+    public void recipeScaled(Blackhole blackhole) {
+        for (Recipe recipe : catalog) {
+            blackhole.consume(recipe.scaled(2.5));
+        }
+    }
+
+    @Benchmark
+    public BulkScaler bulkUniform() {
+        scaler.scale(2.5);
+        return scaler;
+    }
+
+    @Benchmark
+    public BulkScaler bulkPerRecipe() {
+        scaler.scale(factors);
+        return scaler;
+    }
+
+    @Benchmark
+    public void bulkMaterialize(Blackhole blackhole) {
+        scaler.scale(2.5);
+        for (int i = 0; i < recipes; i++) {
+            blackhole.consume(scaler.materialize(i));
+        }
+    }
+}
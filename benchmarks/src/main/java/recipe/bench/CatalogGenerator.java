@@ -0,0 +1,105 @@
+package recipe.bench;
+
+import recipe.common.Ingredient;
+import recipe.common.JsonDirectoryStore;
+import recipe.common.Recipe;
+import recipe.common.RecipeStore;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Generates deterministic synthetic recipe catalogs for benchmarks
+ */
+public class CatalogGenerator {
+    private static final String[] ADJECTIVES = {
+        "Roasted", "Spicy", "Creamy", "Smoky", "Crispy", "Braised", "Grilled", "Lemony",
+        "Garlic", "Herbed", "Sweet", "Tangy", "Rustic", "Classic", "Golden", "Slow-cooked"
+    };
+    private static final String[] DISHES = {
+        "Chicken", "Tomato Soup", "Lentil Stew", "Pork Chops", "Salmon", "Risotto", "Pancakes",
+        "Chili", "Curry", "Flatbread", "Noodles", "Tacos", "Casserole", "Salad", "Brownies", "Muffins"
+    };
+    private static final String[] INGREDIENTS = {
+        "All-purpose flour", "Sugar", "Brown sugar", "Salt", "Black pepper", "Butter", "Olive oil",
+        "Garlic", "Onion", "Shallot", "Carrot", "Celery", "Tomato", "Tomato paste", "Chicken stock",
+        "Vegetable stock", "Milk", "Heavy cream", "Egg", "Parmesan", "Cheddar", "Basil", "Oregano",
+        "Thyme", "Rosemary", "Cumin", "Paprika", "Chili flakes", "Lemon juice", "Lime", "Soy sauce",
+        "Honey", "Rice", "Lentils", "Chickpeas", "Potato", "Sweet potato", "Spinach", "Kale",
+        "Mushroom", "Bell pepper", "Zucchini", "Ginger", "Coconut milk", "Baking soda",
+        "Baking powder", "Vanilla extract", "Cocoa powder", "Chocolate chips", "Yogurt"
+    };
+    private static final String[] UNITS = {"cups", "tbsp", "tsp", "g", "kg", "ml", "l", "oz", "lb", "pieces"};
+
+    private final Random random;
+
+    public CatalogGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Creates one recipe; the index keeps names unique across a catalog
+     */
+    public Recipe recipe(int index, int ingredientCount) {
+        String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+            + DISHES[random.nextInt(DISHES.length)] + " " + index;
+        Recipe recipe = new Recipe(name, 1 + random.nextInt(8));
+
+        for (int i = 0; i < ingredientCount; i++) {
+            String ingredient = INGREDIENTS[random.nextInt(INGREDIENTS.length)];
+            double amount = Math.round((0.25 + random.nextDouble() * 4) * 4) / 4.0;
+            recipe.addIngredient(new Ingredient(ingredient, amount, UNITS[random.nextInt(UNITS.length)], i == 0));
+        }
+
+        int steps = 2 + random.nextInt(5);
+        for (int i = 0; i < steps; i++) {
+            recipe.addInstruction("Step " + (i + 1) + ": combine the "
+                + INGREDIENTS[random.nextInt(INGREDIENTS.length)].toLowerCase() + " and cook until done.");
+        }
+        return recipe;
+    }
+
+    /**
+     * Creates a recipe with a random number of ingredients (3 to 12)
+     */
+    public Recipe recipe(int index) {
+        return recipe(index, 3 + random.nextInt(10));
+    }
+
+    /**
+     * Gets a random ingredient name from the generator's pool
+     */
+    public String ingredientName() {
+        return INGREDIENTS[random.nextInt(INGREDIENTS.length)];
+    }
+
+    /**
+     * Writes a catalog of the given size into a directory, reusing it if it already holds that many recipes
+     */
+    public static File generate(File directory, int size) throws IOException {
+        RecipeStore store = new JsonDirectoryStore(directory.getPath());
+        if (store.listFilenames().size() == size) {
+            return directory;
+        }
+
+        for (String filename : store.listFilenames()) {
+            store.delete(filename);
+        }
+        CatalogGenerator generator = new CatalogGenerator(size);
+        for (int i = 0; i < size; i++) {
+            Recipe recipe = generator.recipe(i);
+            store.write(recipe.getSlug() + ".json", recipe);
+        }
+        return directory;
+    }
+
+    /**
+     * Gets the shared directory for a generated catalog of a given size
+     */
+    public static File catalogDirectory(int size) {
+        String root = System.getProperty("recipe.bench.dir",
+            new File(System.getProperty("java.io.tmpdir"), "recipe-bench").getPath());
+        return new File(root, "catalog-" + size);
+    }
+}
@@ -0,0 +1,68 @@
+package recipe.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import recipe.common.JsonDirectoryStore;
+import recipe.common.RecipeStore;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading every recipe of a catalog from disk, as a cold catalog load does.
+ * The databind variant runs in a JVM where Recipe uses ObjectMapper, for
+ * comparison with the streaming reader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CatalogLoadBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private RecipeStore store;
+    private List<String> filenames;
+
+    @Setup
+    public void setUp() throws IOException {
+        store = new JsonDirectoryStore(CatalogGenerator.generate(CatalogGenerator.catalogDirectory(size), size).getPath());
+        filenames = store.listFilenames();
+    }
+
+    @Benchmark
+    public void parseAll(Blackhole blackhole) throws IOException {
+        for (String filename : filenames) {
+            blackhole.consume(store.read(filename));
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Drecipe.jsonReader=databind")
+    public void parseAllDatabind(Blackhole blackhole) throws IOException {
+        for (String filename : filenames) {
+            blackhole.consume(store.read(filename));
+        }
+    }
+
+    @Benchmark
+    public void readAllSummaries(Blackhole blackhole) throws IOException {
+        for (String filename : filenames) {
+            blackhole.consume(store.readSummary(filename));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package recipe.bench;
+
+import recipe.common.Ingredient;
+import recipe.common.Recipe;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Loads a synthetic catalog through the JSON reader and reports how many String
+ * instances its ingredient names, slugs and units take against how many distinct
+ * values there are, plus the heap the loaded catalog retains.
+ *
+ *   java -cp benchmarks.jar recipe.bench.HeapReport [recipes]
+ *
+ * Recipes (100000 by default) are generated and read back one at a time in
+ * memory, so only the loaded recipes stay reachable. Run again with
+ * -Drecipe.stringDictionarySize=0 to see the heap without the string dictionary.
+ */
+public class HeapReport {
+
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        long heapBefore = usedHeap(memory);
+        CatalogGenerator generator = new CatalogGenerator(size);
+        List<Recipe> catalog = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            catalog.add(Recipe.fromJsonBytes(generator.recipe(i).toCompactJsonBytes()));
+        }
+        long heapAfter = usedHeap(memory);
+
+        Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<String> values = new HashSet<>();
+        long references = 0;
+        for (Recipe recipe : catalog) {
+            for (Ingredient ingredient : recipe.getIngredients()) {
+                for (String text : new String[] {ingredient.getName(), ingredient.getSlug(), ingredient.getUnit()}) {
+                    references++;
+                    instances.add(text);
+                    values.add(text);
+                }
+            }
+        }
+
+        System.out.printf("Recipes loaded:               %,d%n", catalog.size());
+        System.out.printf("Name/slug/unit references:    %,d%n", references);
+        System.out.printf("String instances:             %,d (%,d bytes)%n", instances.size(), stringBytes(instances));
+        System.out.printf("Distinct values:              %,d (%,d bytes)%n", values.size(), stringBytes(values));
+        System.out.printf("Heap retained by the catalog: %,d bytes%n", heapAfter - heapBefore);
+    }
+
+    // Heap in use once a full collection has run, as far as System.gc can promise one
+    private static long usedHeap(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    // Shallow size of Latin-1 strings on a 64-bit JVM with compressed pointers:
+    // a 24-byte String plus a byte[] with a 16-byte header, each rounded to 8 bytes
+    private static long stringBytes(Set<String> strings) {
+        long bytes = 0;
+        for (String text : strings) {
+            bytes += 24 + ((16 + text.length() + 7) & ~7);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,64 @@
+package recipe.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import recipe.common.Recipe;
+import recipe.common.RecipeFileManager;
+import recipe.common.RecipeSummary;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing and searching a warm catalog through RecipeFileManager
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeFileManagerBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private RecipeFileManager fileManager;
+
+    @Setup
+    public void setUp() throws IOException {
+        fileManager = new RecipeFileManager(CatalogGenerator.generate(CatalogGenerator.catalogDirectory(size), size).getPath());
+        // Warm the shared catalog so every benchmark measures the steady state
+        fileManager.listRecipes();
+    }
+
+    @Benchmark
+    public List<Recipe> listRecipes() throws IOException {
+        return fileManager.listRecipes();
+    }
+
+    @Benchmark
+    public List<RecipeSummary> listRecipeSummaries() {
+        return fileManager.listRecipeSummaries();
+    }
+
+    @Benchmark
+    public List<Recipe> searchRecipesByName() throws IOException {
+        return fileManager.searchRecipesByName("spicy chicken");
+    }
+
+    @Benchmark
+    public List<Recipe> searchRecipesByIngredient() throws IOException {
+        return fileManager.searchRecipesByIngredient("garlic");
+    }
+}
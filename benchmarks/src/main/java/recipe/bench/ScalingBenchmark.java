@@ -0,0 +1,43 @@
+package recipe.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import recipe.common.Recipe;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling a single recipe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScalingBenchmark {
+
+    @Param({"5", "50"})
+    public int ingredients;
+
+    private Recipe recipe;
+
+    @Setup
+    public void setUp() {
+        recipe = new CatalogGenerator(7).recipe(1, ingredients);
+    }
+
+    @Benchmark
+    public Recipe scaled() {
+        return recipe.scaled(2.5);
+    }
+}
@@ -0,0 +1,80 @@
+package recipe.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import recipe.common.SlugUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slug generation and unique filename selection
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlugBenchmark {
+
+    @State(Scope.Thread)
+    public static class Names {
+        private final String[] names = new String[256];
+        private int next;
+
+        @Setup
+        public void setUp() {
+            CatalogGenerator generator = new CatalogGenerator(42);
+            for (int i = 0; i < names.length; i++) {
+                names[i] = i % 2 == 0 ? generator.recipe(i, 0).getName() : generator.ingredientName();
+            }
+        }
+
+        String next() {
+            next = (next + 1) & (names.length - 1);
+            return names[next];
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class CollidingDirectory {
+        @Param({"0", "10", "100"})
+        public int collisions;
+
+        private File directory;
+
+        @Setup
+        public void setUp() throws IOException {
+            directory = new File(CatalogGenerator.catalogDirectory(0).getParentFile(), "collisions-" + collisions);
+            directory.mkdirs();
+            for (int i = 0; i < collisions; i++) {
+                String filename = i == 0 ? "chicken-soup.json" : "chicken-soup-" + (i + 1) + ".json";
+                File file = new File(directory, filename);
+                if (!file.exists()) {
+                    Files.writeString(file.toPath(), "{}");
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public String toSlug(Names names) {
+        return SlugUtils.toSlug(names.next());
+    }
+
+    @Benchmark
+    public String getUniqueRecipeFilename(CollidingDirectory directory) {
+        return SlugUtils.getUniqueRecipeFilename("Chicken Soup", directory.directory.getPath());
+    }
+}
@@ -1,5 +1,8 @@
 package recipe;
 
+import recipe.cli.RecipeCli;
+import recipe.common.RecipeFileManager;
+import recipe.common.RecipeLibrary;
 import recipe.common.Terminal;
 import recipe.main.MainMenuModel;
 import recipe.main.MainMenuRenderer;
@@ -11,15 +14,22 @@ public class Main {
   private final MainMenuModel model;
   private final MainMenuRenderer renderer;
   private final MainMenuController controller;
+  private final RecipeLibrary library;
 
   public Main() throws IOException {
     terminal = new Terminal();
     model = new MainMenuModel();
     renderer = new MainMenuRenderer(terminal, model);
-    controller = new MainMenuController(terminal, model, renderer);
+    library = new RecipeLibrary(new RecipeFileManager());
+    controller = new MainMenuController(terminal, model, renderer, library);
     
-    // Add shutdown hook to ensure terminal cleanup
+    // Add shutdown hook to store pending recipe writes and ensure terminal cleanup
     Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      try {
+        RecipeFileManager.flushAll();
+      } catch (IOException e) {
+        System.err.println("Warning: Could not store pending recipes: " + e.getMessage());
+      }
       try {
         terminal.close();
       } catch (IOException e) {
@@ -35,11 +45,12 @@ public class Main {
       renderer.render();
       terminal.setCursorVisible(true);
 
+      // Blocks until a key or a resize arrives, so an idle menu uses no CPU
       while (!controller.shouldExit()) {
         if (terminal.hasTerminalSizeChanged()) {
           renderer.render();
         }
-        controller.handleInputWithTimeout();
+        controller.handleNextEvent();
       }
     } finally {
       terminal.clear();
@@ -48,6 +59,11 @@ public class Main {
   }
 
   public static void main(String[] args) throws IOException {
+    // With a command (list, search, scale, export), run headless and leave the terminal alone
+    if (args.length > 0) {
+      System.exit(RecipeCli.run(args));
+    }
+
     Main app = new Main();
     app.run();
   }
@@ -4,9 +4,11 @@ import recipe.common.Terminal;
 import recipe.common.ScrollableTerminalRenderer;
 import recipe.common.PromptBasedController;
 import recipe.common.RecipeFileManager;
+import recipe.common.RecipeLibrary;
 import recipe.common.Recipe;
+import recipe.common.RecipeSummary;
 import recipe.common.Ingredient;
-import recipe.view.ViewRecipeController;
+import recipe.common.ScaledRecipeView;
 import com.googlecode.lanterna.TextColor;
 import com.googlecode.lanterna.input.KeyStroke;
 import com.googlecode.lanterna.input.KeyType;
@@ -20,15 +22,17 @@ public class CalculateRecipeController {
   private final PromptBasedController promptController;
   private final CalculateRecipeModel calculateModel;
   private final CalculateRecipeRenderer calculateRenderer;
-  private final ViewRecipeController viewController;
   
   public CalculateRecipeController(Terminal terminal, RecipeFileManager fileManager) {
+    this(terminal, new RecipeLibrary(fileManager));
+  }
+  
+  public CalculateRecipeController(Terminal terminal, RecipeLibrary library) {
     this.terminal = terminal;
     this.renderer = new ScrollableTerminalRenderer(terminal);
     this.promptController = new PromptBasedController(terminal, renderer);
-    this.calculateModel = new CalculateRecipeModel(fileManager);
+    this.calculateModel = new CalculateRecipeModel(library);
     this.calculateRenderer = new CalculateRecipeRenderer(renderer);
-    this.viewController = new ViewRecipeController(terminal, fileManager);
   }
   
   public void run() throws IOException {
@@ -132,7 +136,7 @@ public class CalculateRecipeController {
       if (ch >= '1' && ch <= '9') {
         int recipeNumber = ch - '0';
         if (recipeNumber >= 1 && recipeNumber <= calculateModel.getRecipeCount()) {
-          Recipe selectedRecipe = calculateModel.getRecipeByNumber(recipeNumber);
+          RecipeSummary selectedRecipe = calculateModel.getRecipeByNumber(recipeNumber);
           if (selectedRecipe != null) {
             return handleRecipeView(selectedRecipe);
           }
@@ -179,7 +183,7 @@ public class CalculateRecipeController {
     }
 
     // Search for all matching recipes
-    List<Recipe> foundRecipes = calculateModel.searchRecipesByName(searchQuery);
+    List<RecipeSummary> foundRecipes = calculateModel.searchRecipesByName(searchQuery);
 
     if (foundRecipes.isEmpty()) {
       renderer.printError("Recipe not found: " + searchQuery);
@@ -197,7 +201,7 @@ public class CalculateRecipeController {
   }
 
   private boolean handleViewAllRecipes() throws IOException {
-    List<Recipe> allRecipes = calculateModel.getRecipes();
+    List<RecipeSummary> allRecipes = calculateModel.getRecipes();
     int totalRecipes = allRecipes.size();
     
     // Calculate recipes per page based on terminal height
@@ -210,7 +214,7 @@ public class CalculateRecipeController {
       // Calculate current page recipes
       int startIndex = (currentPage - 1) * recipesPerPage;
       int endIndex = Math.min(startIndex + recipesPerPage, totalRecipes);
-      List<Recipe> pageRecipes = allRecipes.subList(startIndex, endIndex);
+      List<RecipeSummary> pageRecipes = allRecipes.subList(startIndex, endIndex);
       
       // Clear console and show current page of recipes
       renderer.clear();
@@ -251,7 +255,7 @@ public class CalculateRecipeController {
         int globalIndex = startIndex + recipeNumber - 1;
         
         if (recipeNumber >= 1 && recipeNumber <= pageRecipes.size()) {
-          Recipe selectedRecipe = allRecipes.get(globalIndex);
+          RecipeSummary selectedRecipe = allRecipes.get(globalIndex);
           calculateModel.setSearchQuery(""); // Clear search query for all recipes view
           return handleRecipeView(selectedRecipe);
         } else {
@@ -259,7 +263,7 @@ public class CalculateRecipeController {
         }
       } catch (NumberFormatException e) {
         // Not a number, try searching by name (search across all recipes, not just current page)
-        List<Recipe> foundRecipes = calculateModel.searchRecipesByName(input);
+        List<RecipeSummary> foundRecipes = calculateModel.searchRecipesByName(input);
         
         if (foundRecipes.isEmpty()) {
           renderer.printError("Recipe not found: " + input);
@@ -296,9 +300,9 @@ public class CalculateRecipeController {
     return prompt.toString();
   }
 
-  private boolean handleMultipleSearchResults(List<Recipe> foundRecipes, String searchQuery) throws IOException {
+  private boolean handleMultipleSearchResults(List<RecipeSummary> foundRecipes, String searchQuery) throws IOException {
     // Limit to 9 results for table display
-    List<Recipe> displayRecipes = foundRecipes.size() > 9 ? 
+    List<RecipeSummary> displayRecipes = foundRecipes.size() > 9 ? 
         foundRecipes.subList(0, 9) : foundRecipes;
 
     while (true) {
@@ -341,7 +345,7 @@ public class CalculateRecipeController {
         if (ch >= '1' && ch <= '9') {
           int recipeNumber = ch - '0';
           if (recipeNumber >= 1 && recipeNumber <= displayRecipes.size()) {
-            Recipe selectedRecipe = displayRecipes.get(recipeNumber - 1);
+            RecipeSummary selectedRecipe = displayRecipes.get(recipeNumber - 1);
             calculateModel.setSearchQuery(searchQuery);
             return handleRecipeView(selectedRecipe);
           } else {
@@ -354,7 +358,10 @@ public class CalculateRecipeController {
     }
   }
 
-  private boolean handleRecipeView(Recipe recipe) throws IOException {
+  private boolean handleRecipeView(RecipeSummary summary) throws IOException {
+    // Only the opened recipe is loaded in full
+    Recipe recipe = calculateModel.openRecipe(summary);
+
     // Check if recipe has prime ingredients
     Ingredient primeIngredient = calculateModel.getFirstPrimeIngredient(recipe);
     if (primeIngredient == null) {
@@ -410,12 +417,12 @@ public class CalculateRecipeController {
       return true;
     }
     
-    // Calculate scale factor and create scaled recipe
+    // Calculate scale factor and view the recipe scaled by it
     double scaleFactor = calculateModel.calculateScaleFactor(primeIngredient.getAmount(), newAmount);
-    Recipe scaledRecipe = calculateModel.createScaledRecipe(recipe, scaleFactor);
+    ScaledRecipeView scaledRecipe = calculateModel.createScaledView(recipe, scaleFactor);
     
     // Display scaled recipe
-    calculateRenderer.renderScaledRecipeDetails(scaledRecipe, scaleFactor);
+    calculateRenderer.renderScaledRecipeDetails(scaledRecipe);
     
     // Wait for user input to continue
     renderer.print("Press Enter to continue: ", TextColor.ANSI.YELLOW);
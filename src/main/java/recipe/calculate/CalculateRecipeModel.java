@@ -4,13 +4,19 @@ import recipe.common.Recipe;
 import recipe.common.Ingredient;
 import recipe.view.ViewRecipeModel;
 import recipe.common.RecipeFileManager;
+import recipe.common.RecipeLibrary;
+import recipe.common.ScaledRecipeView;
 
 import java.util.List;
 
 public class CalculateRecipeModel extends ViewRecipeModel {
   
   public CalculateRecipeModel(RecipeFileManager recipeFileManager) {
-    super(recipeFileManager);
+    super(recipeFileManager, true);
+  }
+
+  public CalculateRecipeModel(RecipeLibrary library) {
+    super(library, true);
   }
   
   public Ingredient getFirstPrimeIngredient(Recipe recipe) {
@@ -31,4 +37,9 @@ public class CalculateRecipeModel extends ViewRecipeModel {
   public Recipe createScaledRecipe(Recipe originalRecipe, double scaleFactor) {
     return originalRecipe.scaled(scaleFactor);
   }
+
+  // For display: wraps the recipe instead of copying it, so trying another amount costs almost nothing
+  public ScaledRecipeView createScaledView(Recipe originalRecipe, double scaleFactor) {
+    return new ScaledRecipeView(originalRecipe, scaleFactor);
+  }
 }
\ No newline at end of file
@@ -2,11 +2,14 @@ package recipe.calculate;
 
 import recipe.common.ScrollableTerminalRenderer;
 import recipe.common.Recipe;
+import recipe.common.RecipeSummary;
 import recipe.common.Ingredient;
+import recipe.common.ScaledRecipeView;
 import recipe.view.ViewRecipeRenderer;
 import com.googlecode.lanterna.TextColor;
 
 import java.io.IOException;
+import java.util.List;
 
 public class CalculateRecipeRenderer {
   private final ScrollableTerminalRenderer renderer;
@@ -21,7 +24,7 @@ public class CalculateRecipeRenderer {
     // Simply delegate to the view renderer
     viewRenderer.renderRecipeDetails(recipe);
   }
-  public void renderScaledRecipeDetails(Recipe recipe, double scaleFactor) throws IOException {
+  public void renderScaledRecipeDetails(ScaledRecipeView recipe) throws IOException {
     renderer.clear();
     
     // Title
@@ -29,7 +32,7 @@ public class CalculateRecipeRenderer {
     renderer.printBlankLine();
 
     // Show "Scaled: y" prefix before servings
-    renderer.println(String.format("Scaled: %.2fx", scaleFactor), TextColor.ANSI.YELLOW);
+    renderer.println(String.format("Scaled: %.2fx", recipe.getScaleFactor()), TextColor.ANSI.YELLOW);
     
     // Servings
     renderer.println(String.format("Servings: %.0f", recipe.getServings()));
@@ -45,7 +48,7 @@ public class CalculateRecipeRenderer {
     renderer.printBlankLine();
 
     // Recipe Notes (Instructions)
-    drawRecipeNotes(recipe);
+    drawRecipeNotes(recipe.getInstructions());
     
     renderer.printBlankLine();
   }
@@ -73,11 +76,11 @@ public class CalculateRecipeRenderer {
     viewRenderer.renderWelcome();
   }
   
-  public void renderRecipeTable(java.util.List<Recipe> recipes, String searchQuery) throws IOException {
+  public void renderRecipeTable(java.util.List<RecipeSummary> recipes, String searchQuery) throws IOException {
     viewRenderer.renderRecipeTable(recipes, searchQuery);
   }
   
-  public void renderRecipeTableWithPagination(java.util.List<Recipe> recipes, String searchQuery, int currentPage, int totalPages, int startNumber) throws IOException {
+  public void renderRecipeTableWithPagination(java.util.List<RecipeSummary> recipes, String searchQuery, int currentPage, int totalPages, int startNumber) throws IOException {
     viewRenderer.renderRecipeTableWithPagination(recipes, searchQuery, currentPage, totalPages, startNumber);
   }
   
@@ -89,11 +92,22 @@ public class CalculateRecipeRenderer {
     viewRenderer.renderSearchPrompt(totalRecipes);
   }
   
-  private void drawIngredientsTable(Recipe recipe) throws IOException {
+  private void drawIngredientsTable(ScaledRecipeView recipe) throws IOException {
+    // Scaled amounts are worked out once here, for both the column width and the rows
+    String[] amounts = new String[recipe.getIngredientCount()];
+    for (int i = 0; i < amounts.length; i++) {
+      amounts[i] = formatAmount(recipe.getIngredientAmount(i));
+    }
+
     // Calculate column widths
-    int ingredientWidth = calculateIngredientColumnWidth(recipe);
-    int amountWidth = calculateAmountColumnWidth(recipe);
-    int unitWidth = calculateUnitColumnWidth(recipe);
+    int ingredientWidth = "Ingredient".length(); // Header widths
+    int amountWidth = "Amount".length();
+    int unitWidth = "Unit".length();
+    for (int i = 0; i < amounts.length; i++) {
+      ingredientWidth = Math.max(ingredientWidth, recipe.getIngredientName(i).length());
+      amountWidth = Math.max(amountWidth, amounts[i].length());
+      unitWidth = Math.max(unitWidth, recipe.getIngredientUnit(i).length());
+    }
     
     // Print headers in magenta
     renderer.print(String.format("%-" + ingredientWidth + "s", "Ingredient"), TextColor.ANSI.MAGENTA);
@@ -103,57 +117,29 @@ public class CalculateRecipeRenderer {
     renderer.println(String.format("%-" + unitWidth + "s", "Unit"), TextColor.ANSI.MAGENTA);
     
     // Print ingredient rows
-    for (int i = 0; i < recipe.getIngredients().size(); i++) {
-      var ingredient = recipe.getIngredients().get(i);
-      
+    for (int i = 0; i < amounts.length; i++) {
       // Ingredient name in cyan
-      renderer.print(String.format("%-" + ingredientWidth + "s", ingredient.getName()), TextColor.ANSI.CYAN);
+      renderer.print(String.format("%-" + ingredientWidth + "s", recipe.getIngredientName(i)), TextColor.ANSI.CYAN);
       renderer.print("  "); // Spacing between columns
       
       // Amount in green
-      String amountStr = String.format("%.1f", ingredient.getAmount()).replaceAll("\\.0$", "");
-      renderer.print(String.format("%" + amountWidth + "s", amountStr), TextColor.ANSI.GREEN);
+      renderer.print(String.format("%" + amountWidth + "s", amounts[i]), TextColor.ANSI.GREEN);
       renderer.print("  "); // Spacing between columns
       
       // Unit in yellow
-      renderer.println(String.format("%-" + unitWidth + "s", ingredient.getUnit()), TextColor.ANSI.YELLOW);
-    }
-  }
-  
-  private int calculateIngredientColumnWidth(Recipe recipe) {
-    int maxWidth = "Ingredient".length(); // Header width
-    
-    for (var ingredient : recipe.getIngredients()) {
-      maxWidth = Math.max(maxWidth, ingredient.getName().length());
+      renderer.println(String.format("%-" + unitWidth + "s", recipe.getIngredientUnit(i)), TextColor.ANSI.YELLOW);
     }
-    
-    return maxWidth;
   }
-  
-  private int calculateAmountColumnWidth(Recipe recipe) {
-    int maxWidth = "Amount".length(); // Header width
-    
-    for (var ingredient : recipe.getIngredients()) {
-      String amountStr = String.format("%.1f", ingredient.getAmount()).replaceAll("\\.0$", "");
-      maxWidth = Math.max(maxWidth, amountStr.length());
-    }
-    
-    return maxWidth;
-  }
-  
-  private int calculateUnitColumnWidth(Recipe recipe) {
-    int maxWidth = "Unit".length(); // Header width
-    
-    for (var ingredient : recipe.getIngredients()) {
-      maxWidth = Math.max(maxWidth, ingredient.getUnit().length());
-    }
-    
-    return maxWidth;
+
+  // One decimal place, without a trailing ".0"
+  private static String formatAmount(double amount) {
+    String amountStr = String.format("%.1f", amount);
+    return amountStr.endsWith(".0") ? amountStr.substring(0, amountStr.length() - 2) : amountStr;
   }
   
-  private void drawRecipeNotes(Recipe recipe) throws IOException {
+  private void drawRecipeNotes(List<String> instructions) throws IOException {
     // Calculate dynamic width based on content
-    int contentWidth = calculateRecipeNotesWidth(recipe);
+    int contentWidth = calculateRecipeNotesWidth(instructions);
     String title = " Recipe Notes ";
     
     // Top border
@@ -165,8 +151,8 @@ public class CalculateRecipeRenderer {
     renderer.println(emptyLine, TextColor.ANSI.BLUE);
     
     // Draw instructions
-    for (int i = 0; i < recipe.getInstructions().size(); i++) {
-      String instruction = String.format("%d. %s", i + 1, recipe.getInstructions().get(i));
+    for (int i = 0; i < instructions.size(); i++) {
+      String instruction = String.format("%d. %s", i + 1, instructions.get(i));
       
       // Wrap text to fit within the content width (minus 4 for padding and borders)
       String[] wrappedLines = wrapText(instruction, contentWidth - 4);
@@ -186,14 +172,14 @@ public class CalculateRecipeRenderer {
     renderer.println(bottomBorder, TextColor.ANSI.BLUE);
   }
   
-  private int calculateRecipeNotesWidth(Recipe recipe) {
+  private int calculateRecipeNotesWidth(List<String> instructions) {
     int minWidth = 30; // Minimum width for "Recipe Notes" header
     int maxWidth = 80; // Maximum width to avoid overly wide boxes
     
     // Find the longest instruction line
     int maxInstructionLength = 0;
-    for (int i = 0; i < recipe.getInstructions().size(); i++) {
-      String instruction = String.format("%d. %s", i + 1, recipe.getInstructions().get(i));
+    for (int i = 0; i < instructions.size(); i++) {
+      String instruction = String.format("%d. %s", i + 1, instructions.get(i));
       maxInstructionLength = Math.max(maxInstructionLength, instruction.length());
     }
     
@@ -0,0 +1,346 @@
+package recipe.cli;
+
+import recipe.calculate.CalculateRecipeModel;
+import recipe.common.BulkScaler;
+import recipe.common.Ingredient;
+import recipe.common.Recipe;
+import recipe.common.RecipeFileManager;
+import recipe.common.RecipeLibrary;
+import recipe.common.RecipeSummary;
+import recipe.common.SlugUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Headless entry point: runs one command over the recipes and streams the
+ * results to standard output, without starting the terminal UI.
+ *
+ *   list                                    every recipe, sorted by name
+ *   search QUERY                            recipes whose name or slug contains QUERY
+ *   export [RECIPE...]                      full recipes (all when none are named)
+ *   scale (--factor F | --servings N | --amount A) [RECIPE...]
+ *                                           scaled recipes; --amount sets the first prime ingredient
+ *
+ * RECIPE is a filename ("chicken-soup.json") or a recipe name. Options:
+ * --format text|jsonl (default text), --dir DIRECTORY (default "recipes") and,
+ * for scale, --normalize-units (48 tsp becomes 1 cup).
+ * Exits with 0 on success, 1 if the recipes directory does not exist or any
+ * recipe could not be read or scaled, and 2 for a usage error.
+ */
+public class RecipeCli {
+  // Recipes opened and scaled together before their results are written
+  private static final int SCALE_CHUNK_SIZE = 1024;
+
+  private static final String USAGE = String.join(System.lineSeparator(),
+      "Usage: recipe <command> [options] [arguments]",
+      "Commands:",
+      "  list                                  List every recipe (filename and name), sorted by name",
+      "  search QUERY                          List recipes whose name or slug contains QUERY",
+      "  export [RECIPE...]                    Print full recipes (all when none are named)",
+      "  scale --factor F [RECIPE...]          Print recipes scaled by F",
+      "  scale --servings N [RECIPE...]        Print recipes scaled to N servings",
+      "  scale --amount A [RECIPE...]          Print recipes scaled so the first prime ingredient is A",
+      "Options:",
+      "  --format text|jsonl                   Output format (default text)",
+      "  --dir DIRECTORY                       Recipes directory (default recipes)",
+      "  --normalize-units                     Scale: move amounts into the unit they read best in",
+      "RECIPE is a recipe filename or name.");
+
+  private final PrintStream err;
+  private String command;
+  private String format = "text";
+  private String directory = "recipes";
+  private String scaleOption;
+  private double scaleValue;
+  private boolean normalizeUnits;
+  private final List<String> arguments = new ArrayList<>();
+  private boolean failed;
+
+  private RecipeCli(PrintStream err) {
+    this.err = err;
+  }
+
+  // Runs a command line, writing results to standard output; returns the exit status
+  public static int run(String[] args) {
+    OutputStream out = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16);
+    return run(args, out, System.err);
+  }
+
+  public static int run(String[] args, OutputStream out, PrintStream err) {
+    RecipeCli cli = new RecipeCli(err);
+    try {
+      cli.parse(args);
+    } catch (IllegalArgumentException e) {
+      err.println("Error: " + e.getMessage());
+      err.println(USAGE);
+      return 2;
+    }
+    RecipeOutput output = new RecipeOutput(out, cli.format.equals("jsonl"));
+    try {
+      if (cli.command.equals("help")) {
+        output.writeText(USAGE);
+      } else {
+        cli.execute(output);
+      }
+      output.flush();
+    } catch (IOException e) {
+      err.println("Error: " + e.getMessage());
+      return 1;
+    }
+    return cli.failed ? 1 : 0;
+  }
+
+  private void parse(String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
+      switch (arg) {
+        case "--format":
+          format = value(args, ++i, arg);
+          if (!format.equals("text") && !format.equals("jsonl")) {
+            throw new IllegalArgumentException("Unknown format: " + format);
+          }
+          break;
+        case "--dir":
+          directory = value(args, ++i, arg);
+          break;
+        case "--factor":
+        case "--servings":
+        case "--amount":
+          if (scaleOption != null) {
+            throw new IllegalArgumentException("Only one of --factor, --servings and --amount may be given");
+          }
+          scaleOption = arg;
+          scaleValue = number(value(args, ++i, arg), arg);
+          break;
+        case "--normalize-units":
+          normalizeUnits = true;
+          break;
+        case "-h":
+        case "--help":
+          command = "help";
+          return;
+        default:
+          if (arg.startsWith("--")) {
+            throw new IllegalArgumentException("Unknown option: " + arg);
+          }
+          if (command == null) {
+            command = arg;
+          } else {
+            arguments.add(arg);
+          }
+      }
+    }
+
+    if (command == null) {
+      throw new IllegalArgumentException("No command given");
+    }
+    switch (command) {
+      case "list":
+      case "export":
+      case "help":
+        break;
+      case "search":
+        if (arguments.size() != 1) {
+          throw new IllegalArgumentException("search takes exactly one query");
+        }
+        break;
+      case "scale":
+        if (scaleOption == null) {
+          throw new IllegalArgumentException("scale needs --factor, --servings or --amount");
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown command: " + command);
+    }
+    if (scaleOption != null && !command.equals("scale")) {
+      throw new IllegalArgumentException(scaleOption + " only applies to scale");
+    }
+    if (normalizeUnits && !command.equals("scale")) {
+      throw new IllegalArgumentException("--normalize-units only applies to scale");
+    }
+  }
+
+  private static String value(String[] args, int index, String option) {
+    if (index >= args.length) {
+      throw new IllegalArgumentException(option + " needs a value");
+    }
+    return args[index];
+  }
+
+  private static double number(String value, String option) {
+    double number;
+    try {
+      number = Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(option + " needs a number: " + value);
+    }
+    if (!(number > 0) || Double.isInfinite(number)) {
+      throw new IllegalArgumentException(option + " must be a positive number: " + value);
+    }
+    return number;
+  }
+
+  private void execute(RecipeOutput output) throws IOException {
+    checkDirectory();
+    CalculateRecipeModel model = new CalculateRecipeModel(new RecipeLibrary(new RecipeFileManager(directory)));
+
+    switch (command) {
+      case "list":
+        for (RecipeSummary summary : model.getRecipes()) {
+          output.writeSummary(summary);
+        }
+        break;
+      case "search":
+        for (RecipeSummary summary : model.searchRecipesByName(arguments.get(0))) {
+          output.writeSummary(summary);
+        }
+        break;
+      case "export":
+        for (RecipeSummary summary : selectRecipes(model)) {
+          Recipe recipe = open(model, summary);
+          if (recipe != null) {
+            output.writeRecipe(recipe);
+          }
+        }
+        break;
+      case "scale":
+        // Scaled a chunk at a time over packed amount arrays, so output starts at once and only
+        // one chunk of opened recipes is held; each result is only built as a Recipe when written
+        List<Recipe> recipes = new ArrayList<>(SCALE_CHUNK_SIZE);
+        List<Double> factors = new ArrayList<>(SCALE_CHUNK_SIZE);
+        for (RecipeSummary summary : selectRecipes(model)) {
+          Recipe recipe = open(model, summary);
+          if (recipe == null) {
+            continue;
+          }
+          double scaleFactor = scaleFactor(model, summary, recipe);
+          if (scaleFactor > 0) {
+            recipes.add(recipe);
+            factors.add(scaleFactor);
+          }
+          if (recipes.size() == SCALE_CHUNK_SIZE) {
+            writeScaled(output, recipes, factors);
+          }
+        }
+        writeScaled(output, recipes, factors);
+        break;
+    }
+  }
+
+  // Scales and writes a chunk of recipes, then empties it
+  private void writeScaled(RecipeOutput output, List<Recipe> recipes, List<Double> factors) throws IOException {
+    if (recipes.isEmpty()) {
+      return;
+    }
+    BulkScaler scaler = BulkScaler.of(recipes);
+    scaler.scale(factors.stream().mapToDouble(Double::doubleValue).toArray());
+    for (int i = 0; i < recipes.size(); i++) {
+      output.writeScaledRecipe(scaler.materialize(i, normalizeUnits), factors.get(i));
+    }
+    output.flush();
+    recipes.clear();
+    factors.clear();
+  }
+
+  // Every command only reads, so a mistyped --dir must fail rather than be created empty by RecipeFileManager
+  private void checkDirectory() throws IOException {
+    if (new File(directory).isDirectory()) {
+      return;
+    }
+    boolean packed = "packed".equalsIgnoreCase(System.getProperty("recipe.store", "json"));
+    if (packed && new File(System.getProperty("recipe.packFile", directory + ".pack")).isFile()) {
+      return;
+    }
+    throw new IOException("Recipes directory not found: " + directory);
+  }
+
+  // The named recipes in the order given, or every recipe sorted by name when none are named
+  private List<RecipeSummary> selectRecipes(CalculateRecipeModel model) {
+    if (arguments.isEmpty()) {
+      return model.getRecipes();
+    }
+
+    Map<String, RecipeSummary> recipesByKey = recipesByKey(model.getRecipes());
+    List<RecipeSummary> selected = new ArrayList<>();
+    for (String argument : arguments) {
+      RecipeSummary summary = findRecipe(recipesByKey, argument);
+      if (summary == null) {
+        err.println("Error: Recipe not found: " + argument);
+        failed = true;
+      } else {
+        selected.add(summary);
+      }
+    }
+    return selected;
+  }
+
+  // Indexes recipes by filename and by lowercased name; of recipes sharing a name, the first listed wins
+  private static Map<String, RecipeSummary> recipesByKey(List<RecipeSummary> recipes) {
+    Map<String, RecipeSummary> recipesByKey = new HashMap<>(recipes.size() * 4);
+    for (RecipeSummary summary : recipes) {
+      recipesByKey.put(summary.getFilename(), summary);
+    }
+    for (RecipeSummary summary : recipes) {
+      if (summary.getName() != null) {
+        recipesByKey.putIfAbsent(summary.getName().trim().toLowerCase(Locale.ROOT), summary);
+      }
+    }
+    return recipesByKey;
+  }
+
+  // Matches a filename first ("cookies-2.json"), then a name ignoring case, then a name through its slug
+  private static RecipeSummary findRecipe(Map<String, RecipeSummary> recipesByKey, String argument) {
+    RecipeSummary summary = recipesByKey.get(argument);
+    if (summary == null) {
+      summary = recipesByKey.get(argument.trim().toLowerCase(Locale.ROOT));
+    }
+    if (summary == null) {
+      summary = recipesByKey.get(SlugUtils.toSlug(argument) + ".json");
+    }
+    return summary;
+  }
+
+  private Recipe open(CalculateRecipeModel model, RecipeSummary summary) {
+    try {
+      return model.openRecipe(summary);
+    } catch (IOException | RuntimeException e) {
+      err.println("Error: Could not read " + summary.getFilename() + ": " + e.getMessage());
+      failed = true;
+      return null;
+    }
+  }
+
+  // Returns the factor for a recipe, or 0 (after reporting why) when it cannot be scaled as asked
+  private double scaleFactor(CalculateRecipeModel model, RecipeSummary summary, Recipe recipe) {
+    switch (scaleOption) {
+      case "--servings":
+        if (recipe.getServings() <= 0) {
+          err.println("Error: " + summary.getFilename() + " has no servings to scale from");
+          failed = true;
+          return 0;
+        }
+        return scaleValue / recipe.getServings();
+      case "--amount":
+        Ingredient primeIngredient = model.getFirstPrimeIngredient(recipe);
+        if (primeIngredient == null) {
+          err.println("Error: " + summary.getFilename() + " has no prime ingredient to scale by");
+          failed = true;
+          return 0;
+        }
+        return model.calculateScaleFactor(primeIngredient.getAmount(), scaleValue);
+      default:
+        return scaleValue;
+    }
+  }
+}
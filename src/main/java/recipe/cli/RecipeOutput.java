@@ -0,0 +1,76 @@
+package recipe.cli;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import recipe.common.Recipe;
+import recipe.common.RecipeSummary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+// Writes command results as plain text or as JSON Lines (one JSON object per line)
+class RecipeOutput {
+  private static final byte[] NEWLINE = {'\n'};
+  private static final JsonFactory JSON = new JsonFactory();
+
+  private final OutputStream out;
+  private final boolean jsonLines;
+
+  RecipeOutput(OutputStream out, boolean jsonLines) {
+    this.out = out;
+    this.jsonLines = jsonLines;
+  }
+
+  // Text: filename, tab, name. JSON: {"filename", "name", "slug", "created"}
+  void writeSummary(RecipeSummary summary) throws IOException {
+    if (!jsonLines) {
+      writeLine(summary.getFilename() + "\t" + summary.getName());
+      return;
+    }
+
+    JsonGenerator json = JSON.createGenerator(out, JsonEncoding.UTF8);
+    json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    json.writeStartObject();
+    json.writeStringField("filename", summary.getFilename());
+    json.writeStringField("name", summary.getName());
+    json.writeStringField("slug", summary.getSlug());
+    json.writeStringField("created", summary.getCreated());
+    json.writeEndObject();
+    json.close();
+    out.write(NEWLINE);
+  }
+
+  // Text: the recipe as the TUI prints it, then a blank line. JSON: the recipe as stored
+  void writeRecipe(Recipe recipe) throws IOException {
+    if (jsonLines) {
+      out.write(recipe.toCompactJsonBytes());
+      out.write(NEWLINE);
+    } else {
+      writeLine(recipe.toString());
+    }
+  }
+
+  // Text: the scale factor, then the scaled recipe. JSON: the scaled recipe as it would be stored
+  void writeScaledRecipe(Recipe scaledRecipe, double scaleFactor) throws IOException {
+    if (!jsonLines) {
+      writeLine(String.format("Scaled: %.2fx", scaleFactor));
+    }
+    writeRecipe(scaledRecipe);
+  }
+
+  // Writes a line of plain text whatever the format
+  void writeText(String text) throws IOException {
+    writeLine(text);
+  }
+
+  void flush() throws IOException {
+    out.flush();
+  }
+
+  private void writeLine(String line) throws IOException {
+    out.write(line.getBytes(StandardCharsets.UTF_8));
+    out.write(NEWLINE);
+  }
+}
@@ -16,8 +16,11 @@ public abstract class AbstractMenuController<T extends AbstractMenuItem> {
         this.renderer = renderer;
     }
 
-    public void handleInputWithTimeout() throws IOException {
-        KeyStroke key = terminal.readInputWithTimeout();
+    /**
+     * Waits for the next key and handles it, returning early without one when the terminal is resized
+     */
+    public void handleNextEvent() throws IOException {
+        KeyStroke key = terminal.readInputOrResize();
         if (key == null) {
             return;
         }
@@ -33,8 +36,8 @@ public abstract class AbstractMenuController<T extends AbstractMenuItem> {
         KeyType keyType = key.getKeyType();
         Character character = key.getCharacter();
 
-        // Handle exit keys
-        if (keyType == KeyType.Escape ||
+        // Handle exit keys (and the input stream closing)
+        if (keyType == KeyType.Escape || keyType == KeyType.EOF ||
             (keyType == KeyType.Character && key.isCtrlDown() && character != null && character == 'c')) {
             shouldExit = true;
             return;
@@ -46,17 +46,23 @@ public abstract class AbstractMenuRenderer<T extends AbstractMenuItem> {
     }
 
     public void render() throws IOException {
-        terminal.clear();
-
-        calculateLayout();
-        drawMenuBorder();
-        drawTitle();
-        drawMenuItems();
-        drawPrompt();
-        drawDebugInfo();
-
-        positionCursor();
-        terminal.resetColors();
+        // Drawn as one frame, so the whole menu reaches the terminal in a single write
+        terminal.beginFrame();
+        try {
+            terminal.clear();
+
+            calculateLayout();
+            drawMenuBorder();
+            drawTitle();
+            drawMenuItems();
+            drawPrompt();
+            drawDebugInfo();
+
+            positionCursor();
+            terminal.resetColors();
+        } finally {
+            terminal.commitFrame();
+        }
     }
 
     protected abstract void calculateLayout();
@@ -195,8 +201,13 @@ public abstract class AbstractMenuRenderer<T extends AbstractMenuItem> {
     }
 
     public void renderMessage(String message, TextColor color) throws IOException {
-        terminal.clear();
-        printCentered(terminal.getHeight() / 3, message, color);
-        terminal.resetColors();
+        terminal.beginFrame();
+        try {
+            terminal.clear();
+            printCentered(terminal.getHeight() / 3, message, color);
+            terminal.resetColors();
+        } finally {
+            terminal.commitFrame();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,115 @@
+package recipe.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Crash-safe file writes: data goes to a synced temp file next to the target,
+ * which then takes the target's place in a single rename (or hard link, when the
+ * target must not exist yet). Readers and a crash at any point see either the
+ * old file or the complete new one, never a partial write.
+ */
+class AtomicFiles {
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * Writes a file, replacing any previous version atomically
+     */
+    static void write(Path target, byte[] data) throws IOException {
+        replace(writeTemp(target, data), target);
+        syncDirectory(target.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Writes or deletes (for null data) a batch of files in one directory in order, syncing the directory once at the end
+     */
+    static void writeAll(Path directory, Map<Path, byte[]> files) throws IOException {
+        try {
+            for (Map.Entry<Path, byte[]> file : files.entrySet()) {
+                if (file.getValue() == null) {
+                    Files.deleteIfExists(file.getKey());
+                } else {
+                    replace(writeTemp(file.getKey(), file.getValue()), file.getKey());
+                }
+            }
+        } finally {
+            syncDirectory(directory);
+        }
+    }
+
+    /**
+     * Writes a file only if it does not exist yet, returning false if it does
+     */
+    static boolean create(Path target, byte[] data) throws IOException {
+        Path temp = writeTemp(target, data);
+        try {
+            Files.createLink(target, temp);
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            // No hard links on this file system; reserve the name directly instead
+            try {
+                Files.write(target, data, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+            } catch (FileAlreadyExistsException exists) {
+                return false;
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        syncDirectory(target.toAbsolutePath().getParent());
+        return true;
+    }
+
+    /**
+     * Renames a temp file over its target
+     */
+    private static void replace(Path temp, Path target) throws IOException {
+        try {
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Writes and syncs a temp file in the target's directory; its name never ends in ".json"
+     */
+    private static Path writeTemp(Path target, byte[] data) throws IOException {
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), "." + target.getFileName() + ".", TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return temp;
+    }
+
+    /**
+     * Syncs a directory's entries where the platform allows opening directories
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform (Windows, for example); the rename itself is still atomic
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package recipe.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Scales many recipes at once over packed arrays.
+ *
+ * The ingredient amounts and scaling factors of every recipe are copied once
+ * into two double[] arrays, recipe after recipe. Each scale call then fills a
+ * third array with amount * factor * scalingFactor (the same arithmetic, in the
+ * same order, as Ingredient.scaled) in a plain loop over the arrays, without
+ * creating any objects. Scaled Recipe objects are only built when asked for
+ * with materialize. The recipes must not change while packed.
+ */
+public final class BulkScaler {
+    private final List<Recipe> recipes;
+    // The ingredients of recipe r are at [offsets[r], offsets[r + 1])
+    private final int[] offsets;
+    private final double[] amounts;
+    private final double[] scalingFactors;
+    private final double[] scaledAmounts;
+    private final double[] recipeFactors;
+
+    private BulkScaler(List<Recipe> recipes) {
+        this.recipes = new ArrayList<>(recipes);
+        this.offsets = new int[recipes.size() + 1];
+        for (int r = 0; r < recipes.size(); r++) {
+            offsets[r + 1] = offsets[r] + recipes.get(r).getIngredients().size();
+        }
+
+        int ingredientCount = offsets[recipes.size()];
+        this.amounts = new double[ingredientCount];
+        this.scalingFactors = new double[ingredientCount];
+        this.scaledAmounts = new double[ingredientCount];
+        this.recipeFactors = new double[recipes.size()];
+        for (int r = 0; r < recipes.size(); r++) {
+            List<Ingredient> ingredients = recipes.get(r).getIngredients();
+            for (int i = 0; i < ingredients.size(); i++) {
+                amounts[offsets[r] + i] = ingredients.get(i).getAmount();
+                scalingFactors[offsets[r] + i] = ingredients.get(i).getScalingFactor();
+            }
+        }
+    }
+
+    /**
+     * Packs the amounts of a list of recipes for scaling
+     */
+    public static BulkScaler of(List<Recipe> recipes) {
+        return new BulkScaler(recipes);
+    }
+
+    public int getRecipeCount() {
+        return recipes.size();
+    }
+
+    public int getIngredientCount() {
+        return amounts.length;
+    }
+
+    /**
+     * Scales every recipe by the same factor
+     */
+    public void scale(double factor) {
+        Arrays.fill(recipeFactors, factor);
+        scaleRange(factor, 0, amounts.length);
+    }
+
+    /**
+     * Scales each recipe by its own factor, given in packing order
+     */
+    public void scale(double[] factors) {
+        if (factors.length != recipes.size()) {
+            throw new IllegalArgumentException("Expected " + recipes.size() + " factors, got " + factors.length);
+        }
+        System.arraycopy(factors, 0, recipeFactors, 0, factors.length);
+        for (int r = 0; r < factors.length; r++) {
+            scaleRange(factors[r], offsets[r], offsets[r + 1]);
+        }
+    }
+
+    /**
+     * Gets an ingredient's amount from the last scale call
+     */
+    public double getScaledAmount(int recipe, int ingredient) {
+        if (ingredient < 0 || ingredient >= offsets[recipe + 1] - offsets[recipe]) {
+            throw new IndexOutOfBoundsException("Ingredient " + ingredient + " of recipe " + recipe);
+        }
+        return scaledAmounts[offsets[recipe] + ingredient];
+    }
+
+    /**
+     * Builds the scaled Recipe for one recipe from the last scale call, named and
+     * rounded up to whole servings as Recipe.scaled does. Ingredient names and
+     * slugs are copied rather than worked out again.
+     */
+    public Recipe materialize(int recipe) {
+        return materialize(recipe, false);
+    }
+
+    /**
+     * Builds the scaled Recipe for one recipe from the last scale call, optionally
+     * moving each amount into the unit it reads best in
+     */
+    public Recipe materialize(int recipe, boolean normalizeUnits) {
+        Recipe source = recipes.get(recipe);
+        double factor = recipeFactors[recipe];
+        Recipe scaledRecipe = new Recipe(source.getName() + " (scaled)", (int) Math.ceil(source.getServings() * factor));
+
+        List<Ingredient> ingredients = source.getIngredients();
+        for (int i = 0; i < ingredients.size(); i++) {
+            scaledRecipe.addIngredient(ingredients.get(i).withAmount(scaledAmounts[offsets[recipe] + i], normalizeUnits));
+        }
+        scaledRecipe.setInstructions(new ArrayList<>(source.getInstructions()));
+        return scaledRecipe;
+    }
+
+    // The same arithmetic, in the same order, as Ingredient.scaled
+    private void scaleRange(double factor, int from, int to) {
+        for (int i = from; i < to; i++) {
+            scaledAmounts[i] = amounts[i] * factor * scalingFactors[i];
+        }
+    }
+}
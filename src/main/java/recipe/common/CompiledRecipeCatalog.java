@@ -0,0 +1,395 @@
+package recipe.common;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Read-only snapshot of a recipe store, compiled into one memory-mapped file.
+ *
+ * Layout: a header (magic "RCAT", format version, row count, start of the
+ * bodies and the fingerprint of the store it was compiled from), a table of row
+ * offsets, the summary rows (name, slug, created, filename, the location of
+ * the body and the store version it was read at) sorted by name, and finally
+ * the compact JSON bodies. Summaries are decoded from the mapping
+ * only when a row is read, and a body is parsed only when its recipe is opened,
+ * so listing a page of a huge catalog only faults in the pages holding those rows.
+ *
+ * Recompiling after the store changes copies the rows of recipes whose store
+ * version is unchanged straight from the previous catalog; only new and changed
+ * recipes are read and parsed. The file itself is still rewritten whole.
+ */
+public class CompiledRecipeCatalog {
+    private static final int MAGIC = 0x52434154; // "RCAT"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 24;
+    private static final int NULL_STRING = 0xFFFF;
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int bodiesStart;
+    private final long fingerprint;
+    private final List<RecipeSummary> summaries = new SummaryList();
+
+    private CompiledRecipeCatalog(Path file, ByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a compiled recipe catalog: " + file);
+        }
+        int formatVersion = buffer.getShort(4);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported compiled catalog version " + formatVersion + ": " + file);
+        }
+        this.count = buffer.getInt(8);
+        this.bodiesStart = buffer.getInt(12);
+        this.fingerprint = buffer.getLong(16);
+        if (count < 0 || bodiesStart < HEADER_SIZE + 4L * count || bodiesStart > buffer.capacity()) {
+            throw new IOException("Corrupt compiled recipe catalog: " + file);
+        }
+    }
+
+    /**
+     * Maps an existing compiled catalog
+     */
+    public static CompiledRecipeCatalog open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Compiled recipe catalog is too large to map: " + file);
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CompiledRecipeCatalog(file, mapped);
+        }
+    }
+
+    /**
+     * Maps a compiled catalog, (re)compiling it first if it is missing or out of date with the store
+     */
+    public static CompiledRecipeCatalog openOrCompile(RecipeStore store, Path file) throws IOException {
+        long currentFingerprint = fingerprint(store);
+        CompiledRecipeCatalog previous = null;
+        if (Files.isRegularFile(file)) {
+            try {
+                previous = open(file);
+                if (previous.fingerprint == currentFingerprint) {
+                    return previous;
+                }
+            } catch (IOException e) {
+                System.err.println("Warning: Recompiling unreadable recipe catalog " + file + ": " + e.getMessage());
+            }
+        }
+        return compile(store, file, previous);
+    }
+
+    /**
+     * Compiles every readable recipe in a store into a catalog file and maps it
+     */
+    public static CompiledRecipeCatalog compile(RecipeStore store, Path file) throws IOException {
+        return compile(store, file, null);
+    }
+
+    /**
+     * Compiles a store, copying the rows of a previous catalog (if any) whose recipe is unchanged
+     */
+    private static CompiledRecipeCatalog compile(RecipeStore store, Path file, CompiledRecipeCatalog previous)
+            throws IOException {
+        List<String> filenames = store.listFilenames();
+        long[] versions = new long[filenames.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = store.version(filenames.get(i));
+        }
+        long storeFingerprint = fingerprint(filenames, versions);
+
+        Map<String, Integer> previousRows = previous != null ? previous.rowsByFilename() : new HashMap<>();
+        List<Row> rows = new ArrayList<>(filenames.size());
+        List<String> changed = new ArrayList<>();
+        List<Long> changedVersions = new ArrayList<>();
+        for (int i = 0; i < filenames.size(); i++) {
+            Integer row = previousRows.get(filenames.get(i));
+            if (row != null && versions[i] != -1 && previous.version(row) == versions[i]) {
+                rows.add(Row.copied(previous.getSummary(row), versions[i], previous.body(row)));
+            } else {
+                changed.add(filenames.get(i));
+                changedVersions.add(versions[i]);
+            }
+        }
+
+        RecipeLoadReport report = RecipeLoader.loadAll(store, changed);
+        for (int i = 0; i < report.getFileCount(); i++) {
+            Recipe recipe = report.getRecipe(i);
+            if (recipe != null && recipe.getName() != null) {
+                rows.add(Row.parsed(changed.get(i), changedVersions.get(i), recipe));
+            }
+        }
+        rows.sort(Comparator.comparing((Row row) -> row.name, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(row -> row.filename));
+
+        // Summary rows have a fixed-size body reference, so every offset is known before writing
+        ByteArrayOutputStream summaryBytes = new ByteArrayOutputStream();
+        DataOutputStream summaryOut = new DataOutputStream(summaryBytes);
+        int[] rowOffsets = new int[rows.size()];
+        List<byte[]> bodies = new ArrayList<>(rows.size());
+        long bodyOffset = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            byte[] body = row.body;
+            rowOffsets[i] = summaryOut.size();
+            writeString(summaryOut, row.name);
+            writeString(summaryOut, row.slug);
+            writeString(summaryOut, row.created);
+            writeString(summaryOut, row.filename);
+            summaryOut.writeInt((int) Math.min(bodyOffset, Integer.MAX_VALUE));
+            summaryOut.writeInt(body.length);
+            summaryOut.writeLong(row.version);
+            bodies.add(body);
+            bodyOffset += body.length;
+        }
+
+        long summariesStart = HEADER_SIZE + 4L * rows.size();
+        long bodiesStart = summariesStart + summaryOut.size();
+        if (bodiesStart + bodyOffset > Integer.MAX_VALUE) {
+            throw new IOException("Recipe catalog is too large to compile into one mapped file");
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        // A unique temp file, so compiles running side by side (the CLI next to the TUI) cannot mix their output
+        Path temp = Files.createTempFile(parent, "." + file.getFileName() + ".", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeShort(FORMAT_VERSION);
+                out.writeShort(0);
+                out.writeInt(rows.size());
+                out.writeInt((int) bodiesStart);
+                out.writeLong(storeFingerprint);
+                for (int rowOffset : rowOffsets) {
+                    out.writeInt((int) summariesStart + rowOffset);
+                }
+                summaryBytes.writeTo(out);
+                for (byte[] body : bodies) {
+                    out.write(body);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return open(file);
+    }
+
+    /**
+     * Computes a value that changes whenever a recipe in the store is added, removed or changed.
+     * This lists the store and checks each recipe's version but parses nothing.
+     */
+    public static long fingerprint(RecipeStore store) throws IOException {
+        List<String> filenames = store.listFilenames();
+        long[] versions = new long[filenames.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = store.version(filenames.get(i));
+        }
+        return fingerprint(filenames, versions);
+    }
+
+    private static long fingerprint(List<String> filenames, long[] versions) {
+        long hash = 1125899906842597L;
+        for (int i = 0; i < versions.length; i++) {
+            hash = 31 * hash + filenames.get(i).hashCode();
+            hash = 31 * hash + versions[i];
+        }
+        return hash;
+    }
+
+    /**
+     * Gets the path of the compiled catalog file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Gets the number of recipes in the catalog
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Gets all summaries sorted by name; each row is decoded only when it is read
+     */
+    public List<RecipeSummary> summaries() {
+        return summaries;
+    }
+
+    /**
+     * Decodes the summary of a single row
+     */
+    public RecipeSummary getSummary(int row) {
+        int position = rowOffset(row);
+        String name = readString(position);
+        position += stringSize(position);
+        String slug = readString(position);
+        position += stringSize(position);
+        String created = readString(position);
+        position += stringSize(position);
+        String filename = readString(position);
+        return new RecipeSummary(name, slug, created, filename, row);
+    }
+
+    /**
+     * Parses the full recipe for a summary read from this catalog
+     */
+    public Recipe loadRecipe(RecipeSummary summary) throws IOException {
+        if (summary.getRow() < 0 || summary.getRow() >= count) {
+            throw new IOException("Recipe is not part of this compiled catalog: " + summary.getFilename());
+        }
+        return loadRecipe(summary.getRow());
+    }
+
+    /**
+     * Parses the full recipe stored in a row
+     */
+    public Recipe loadRecipe(int row) throws IOException {
+        return Recipe.fromJsonBytes(body(row));
+    }
+
+    /**
+     * Gets the compact JSON body stored in a row
+     */
+    private byte[] body(int row) {
+        int position = bodyReference(row);
+        int bodyOffset = buffer.getInt(position);
+        int bodyLength = buffer.getInt(position + 4);
+
+        byte[] body = new byte[bodyLength];
+        buffer.get(bodiesStart + bodyOffset, body);
+        return body;
+    }
+
+    /**
+     * Gets the store version a row's recipe was read at
+     */
+    private long version(int row) {
+        return buffer.getLong(bodyReference(row) + 8);
+    }
+
+    /**
+     * Maps each filename to its row
+     */
+    private Map<String, Integer> rowsByFilename() {
+        Map<String, Integer> rows = new HashMap<>(count * 2);
+        for (int row = 0; row < count; row++) {
+            rows.put(getSummary(row).getFilename(), row);
+        }
+        return rows;
+    }
+
+    // Skips a row's four strings to the body offset, body length and version that follow them
+    private int bodyReference(int row) {
+        int position = rowOffset(row);
+        for (int i = 0; i < 4; i++) {
+            position += stringSize(position);
+        }
+        return position;
+    }
+
+    private int rowOffset(int row) {
+        if (row < 0 || row >= count) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + count);
+        }
+        return buffer.getInt(HEADER_SIZE + 4 * row);
+    }
+
+    private int stringSize(int position) {
+        int length = buffer.getShort(position) & 0xFFFF;
+        return 2 + (length == NULL_STRING ? 0 : length);
+    }
+
+    private String readString(int position) {
+        int length = buffer.getShort(position) & 0xFFFF;
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(position + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_STRING) {
+            throw new IOException("Recipe field is too long to compile: " + value.substring(0, Math.min(40, value.length())) + "...");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * A recipe being compiled: its summary fields, the store version it was read at and its compact JSON
+     */
+    private static final class Row {
+        private final String filename;
+        private final String name;
+        private final String slug;
+        private final String created;
+        private final long version;
+        private final byte[] body;
+
+        private Row(String filename, String name, String slug, String created, long version, byte[] body) {
+            this.filename = filename;
+            this.name = name;
+            this.slug = slug;
+            this.created = created;
+            this.version = version;
+            this.body = body;
+        }
+
+        static Row parsed(String filename, long version, Recipe recipe) throws IOException {
+            return new Row(filename, recipe.getName(), recipe.getSlug(), recipe.getCreated(), version,
+                recipe.toCompactJsonBytes());
+        }
+
+        static Row copied(RecipeSummary summary, long version, byte[] body) {
+            return new Row(summary.getFilename(), summary.getName(), summary.getSlug(), summary.getCreated(),
+                version, body);
+        }
+    }
+
+    /**
+     * List view over the summary rows that decodes each row on access
+     */
+    private final class SummaryList extends AbstractList<RecipeSummary> implements RandomAccess {
+        @Override
+        public RecipeSummary get(int index) {
+            return getSummary(index);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package recipe.common;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 public class Ingredient {
@@ -21,6 +22,12 @@ public class Ingredient {
     @JsonProperty("scalingFactor")
     private double scalingFactor;
     
+    // UnitRegistry ID of the unit, looked up the first time it is needed
+    @JsonIgnore
+    private int unitId = UNRESOLVED_UNIT;
+    
+    private static final int UNRESOLVED_UNIT = -2;
+    
     // Default constructor for Jackson
     public Ingredient() {
         this.scalingFactor = 1.0;
@@ -50,9 +57,10 @@ public class Ingredient {
         return name;
     }
     
+    // The setters are what recipe loading goes through, so loaded ingredients share their strings
     public void setName(String name) {
-        this.name = SlugUtils.normalizeDisplayName(name);
-        this.slug = SlugUtils.toSlug(name);
+        this.name = StringDictionary.intern(SlugUtils.normalizeDisplayName(name));
+        this.slug = StringDictionary.intern(SlugUtils.toSlug(name));
     }
     
     public String getSlug() {
@@ -60,7 +68,7 @@ public class Ingredient {
     }
     
     public void setSlug(String slug) {
-        this.slug = slug;
+        this.slug = StringDictionary.intern(slug);
     }
     
     public double getAmount() {
@@ -76,7 +84,19 @@ public class Ingredient {
     }
     
     public void setUnit(String unit) {
-        this.unit = unit;
+        this.unit = StringDictionary.intern(unit);
+        this.unitId = UNRESOLVED_UNIT;
+    }
+    
+    /**
+     * Gets the UnitRegistry ID of this ingredient's unit, or UnitRegistry.UNKNOWN
+     */
+    @JsonIgnore
+    public int getUnitId() {
+        if (unitId == UNRESOLVED_UNIT) {
+            unitId = UnitRegistry.idOf(unit);
+        }
+        return unitId;
     }
     
     public boolean isPrime() {
@@ -99,13 +119,70 @@ public class Ingredient {
      * Scales this ingredient by a given factor
      */
     public Ingredient scaled(double scaleFactor) {
-        return new Ingredient(
+        return scaled(scaleFactor, false);
+    }
+    
+    /**
+     * Scales this ingredient by a given factor, optionally moving the amount into
+     * the unit it reads best in (48 tsp becomes 1 cup). Units the UnitRegistry
+     * does not know are kept as they are.
+     */
+    public Ingredient scaled(double scaleFactor, boolean normalizeUnit) {
+        Ingredient scaledIngredient = new Ingredient(
             this.name,
             this.amount * scaleFactor * this.scalingFactor,
             this.unit,
             this.isPrime,
             this.scalingFactor
         );
+        scaledIngredient.unitId = this.unitId;
+        if (normalizeUnit) {
+            scaledIngredient.normalizeUnit();
+        }
+        return scaledIngredient;
+    }
+    
+    /**
+     * Copies this ingredient as it is
+     */
+    Ingredient copy() {
+        return withAmount(this.amount);
+    }
+    
+    /**
+     * Copies this ingredient with another amount, keeping its name and slug as they are
+     */
+    Ingredient withAmount(double amount) {
+        return withAmount(amount, false);
+    }
+    
+    Ingredient withAmount(double amount, boolean normalizeUnit) {
+        Ingredient copy = new Ingredient();
+        copy.name = this.name;
+        copy.slug = this.slug;
+        copy.amount = amount;
+        copy.unit = this.unit;
+        copy.unitId = this.unitId;
+        copy.isPrime = this.isPrime;
+        copy.scalingFactor = this.scalingFactor;
+        if (normalizeUnit) {
+            copy.normalizeUnit();
+        }
+        return copy;
+    }
+    
+    /**
+     * Moves the amount into the unit it reads best in; the unit text only
+     * changes when the unit does
+     */
+    private void normalizeUnit() {
+        int from = getUnitId();
+        int to = UnitRegistry.bestUnit(amount, from);
+        if (to != from) {
+            amount = UnitRegistry.convert(amount, from, to);
+            unit = UnitRegistry.getName(to, amount);
+            unitId = to;
+        }
     }
     
     @Override
@@ -0,0 +1,135 @@
+package recipe.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from lowercased ingredient names and slugs to the recipes that use them.
+ *
+ * Each distinct key is also indexed by its three-character windows, as in
+ * TrigramIndex but kept up to date as recipes come and go. A substring search
+ * takes the keys holding the search term's rarest trigram and verifies only
+ * those with String.contains; terms shorter than a trigram check every key.
+ */
+class IngredientIndex {
+    private final Map<String, Set<String>> recipesByKey = new HashMap<>();
+    private final Map<String, List<String>> keysByRecipe = new HashMap<>();
+    private final Map<Long, Set<String>> keysByTrigram = new HashMap<>();
+
+    /**
+     * Indexes a recipe's ingredients, replacing anything indexed for the same slug.
+     * A missing ingredient list or ingredient is skipped.
+     */
+    void add(String recipeSlug, Recipe recipe) {
+        remove(recipeSlug);
+
+        List<String> keys = new ArrayList<>();
+        List<Ingredient> ingredients = recipe.getIngredients();
+        if (ingredients != null) {
+            for (Ingredient ingredient : ingredients) {
+                if (ingredient != null) {
+                    addKey(recipeSlug, ingredient.getName(), keys);
+                    addKey(recipeSlug, ingredient.getSlug(), keys);
+                }
+            }
+        }
+        keysByRecipe.put(recipeSlug, keys);
+    }
+
+    /**
+     * Removes a recipe from the index
+     */
+    void remove(String recipeSlug) {
+        List<String> keys = keysByRecipe.remove(recipeSlug);
+        if (keys == null) {
+            return;
+        }
+
+        for (String key : keys) {
+            Set<String> recipes = recipesByKey.get(key);
+            if (recipes != null) {
+                recipes.remove(recipeSlug);
+                if (recipes.isEmpty()) {
+                    recipesByKey.remove(key);
+                    unindexTrigrams(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the slugs of recipes with an ingredient name or slug containing the search term
+     */
+    Set<String> search(String searchTerm) {
+        String lowerSearchTerm = searchTerm.toLowerCase();
+        Set<String> matches = new HashSet<>();
+        for (String key : candidateKeys(lowerSearchTerm)) {
+            if (key.contains(lowerSearchTerm)) {
+                matches.addAll(recipesByKey.get(key));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Gets the keys that could contain the search term: those holding its rarest trigram
+     */
+    private Set<String> candidateKeys(String lowerSearchTerm) {
+        if (lowerSearchTerm.length() < 3) {
+            return recipesByKey.keySet();
+        }
+
+        Set<String> candidates = null;
+        for (int i = 0; i + 3 <= lowerSearchTerm.length(); i++) {
+            Set<String> keys = keysByTrigram.get(TrigramIndex.trigram(lowerSearchTerm, i));
+            if (keys == null) {
+                return Collections.emptySet();
+            }
+            if (candidates == null || keys.size() < candidates.size()) {
+                candidates = keys;
+            }
+        }
+        return candidates;
+    }
+
+    private void addKey(String recipeSlug, String value, List<String> keys) {
+        if (value == null) {
+            return;
+        }
+
+        String key = value.toLowerCase();
+        Set<String> recipes = recipesByKey.get(key);
+        if (recipes == null) {
+            recipes = new HashSet<>();
+            recipesByKey.put(key, recipes);
+            indexTrigrams(key);
+        }
+        if (recipes.add(recipeSlug)) {
+            keys.add(key);
+        }
+    }
+
+    private void indexTrigrams(String key) {
+        for (int i = 0; i + 3 <= key.length(); i++) {
+            keysByTrigram.computeIfAbsent(TrigramIndex.trigram(key, i), t -> new HashSet<>()).add(key);
+        }
+    }
+
+    private void unindexTrigrams(String key) {
+        for (int i = 0; i + 3 <= key.length(); i++) {
+            long trigram = TrigramIndex.trigram(key, i);
+            Set<String> keys = keysByTrigram.get(trigram);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    keysByTrigram.remove(trigram);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package recipe.common;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Stores each recipe as its own pretty-printed JSON file in a directory
+ */
+public class JsonDirectoryStore implements RecipeStore {
+    private final Path directory;
+
+    public JsonDirectoryStore(String recipesDirectory) {
+        this.directory = new File(recipesDirectory).toPath().toAbsolutePath().normalize();
+        File dir = directory.toFile();
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+    }
+
+    @Override
+    public Path getLocation() {
+        return directory;
+    }
+
+    @Override
+    public List<String> listFilenames() {
+        File[] files = directory.toFile().listFiles((file, name) -> name.endsWith(".json"));
+
+        if (files == null) {
+            return new ArrayList<>();
+        }
+
+        return Arrays.stream(files)
+                .map(File::getName)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean exists(String filename) {
+        File file = resolve(filename);
+        return file.exists() && file.isFile();
+    }
+
+    @Override
+    public Recipe read(String filename) throws IOException {
+        return Recipe.fromFile(resolve(filename));
+    }
+
+    @Override
+    public RecipeSummary readSummary(String filename) throws IOException {
+        return RecipeSummaryReader.read(resolve(filename), filename);
+    }
+
+    /**
+     * Writes through a synced temp file renamed over the old version, so a crash never leaves a partial recipe
+     */
+    @Override
+    public void write(String filename, Recipe recipe) throws IOException {
+        AtomicFiles.write(directory.resolve(filename), recipe.toJsonBytes());
+    }
+
+    /**
+     * Links a synced temp file into place, which fails atomically if another writer created the file first
+     */
+    @Override
+    public boolean create(String filename, Recipe recipe) throws IOException {
+        return AtomicFiles.create(directory.resolve(filename), recipe.toJsonBytes());
+    }
+
+    /**
+     * Writes each recipe through a synced temp file but syncs the directory once for the whole batch
+     */
+    @Override
+    public void writeBatch(Map<String, Recipe> changes) throws IOException {
+        Map<Path, byte[]> files = new LinkedHashMap<>();
+        for (Map.Entry<String, Recipe> change : changes.entrySet()) {
+            files.put(directory.resolve(change.getKey()), change.getValue() != null ? change.getValue().toJsonBytes() : null);
+        }
+        AtomicFiles.writeAll(directory, files);
+    }
+
+    @Override
+    public boolean delete(String filename) {
+        File file = resolve(filename);
+        return file.exists() && file.delete();
+    }
+
+    /**
+     * Combines the modification time (at full filesystem precision) with the file size
+     */
+    @Override
+    public long version(String filename) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(directory.resolve(filename), BasicFileAttributes.class);
+            return attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS) * 31 + attributes.size();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public String describe(String filename) {
+        return resolve(filename).getAbsolutePath();
+    }
+
+    /**
+     * Watches the directory with a WatchService on a daemon thread
+     */
+    @Override
+    public boolean watch(ChangeListener listener) {
+        WatchService watchService;
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+
+        Thread watcher = new Thread(() -> watch(watchService, listener), "recipe-directory-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        return true;
+    }
+
+    private void watch(WatchService watchService, ChangeListener listener) {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                listener.stopped();
+                return;
+            }
+
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    listener.overflowed();
+                    continue;
+                }
+                String filename = event.context().toString();
+                if (filename.endsWith(".json")) {
+                    listener.changed(filename);
+                }
+            }
+
+            if (!key.reset()) {
+                // Directory is gone or inaccessible; the catalog falls back to rescanning
+                listener.stopped();
+                return;
+            }
+        }
+    }
+
+    private File resolve(String filename) {
+        return directory.resolve(filename).toFile();
+    }
+}
@@ -0,0 +1,452 @@
+package recipe.common;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores all recipes in a single append-only file of length-prefixed records.
+ *
+ * Layout: an 8-byte header ("RPAK" and a format version) followed by records of
+ * [int length][byte op][short name length][UTF-8 filename][compact JSON body].
+ * A put appends a new record and a delete appends a tombstone; an in-memory
+ * offset index built by one sequential scan on open points at the live record
+ * for each filename. Superseded records are reclaimed by compact(). A record
+ * torn by a crash mid-append is discarded on the next open.
+ *
+ * importFrom ends with a marker record once every recipe of the source has been
+ * tried, so an import cut short (by a crash, say) can be told apart from a
+ * finished one and resumed. Version 1 packs predate the marker and count as
+ * imported.
+ *
+ * The store assumes it is the only writer of its file.
+ */
+public class PackedRecipeStore implements RecipeStore, Closeable {
+    private static final int MAGIC = 0x5250414B; // "RPAK"
+    private static final int FORMAT_VERSION = 2;
+    private static final int UNMARKED_FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final byte OP_IMPORTED = 3;
+    private static final long AUTO_COMPACT_MIN_DEAD_BYTES = 1 << 20;
+    private static final Map<Path, PackedRecipeStore> OPEN_STORES = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final TreeMap<String, Slot> index = new TreeMap<>();
+    private FileChannel channel;
+    private long endOffset;
+    private long deadBytes;
+    private boolean importComplete;
+
+    private PackedRecipeStore(Path file) throws IOException {
+        this.file = file;
+        openChannel();
+    }
+
+    /**
+     * Opens the packed store at a path, creating it if needed; each path is opened once per process
+     */
+    public static PackedRecipeStore open(String packFile) throws IOException {
+        Path path = new File(packFile).toPath().toAbsolutePath().normalize();
+        PackedRecipeStore store = OPEN_STORES.get(path);
+        if (store != null) {
+            return store;
+        }
+
+        synchronized (OPEN_STORES) {
+            store = OPEN_STORES.get(path);
+            if (store == null) {
+                store = new PackedRecipeStore(path);
+                OPEN_STORES.put(path, store);
+            }
+            return store;
+        }
+    }
+
+    @Override
+    public Path getLocation() {
+        return file;
+    }
+
+    @Override
+    public synchronized List<String> listFilenames() {
+        return new ArrayList<>(index.keySet());
+    }
+
+    @Override
+    public synchronized boolean exists(String filename) {
+        return index.containsKey(filename);
+    }
+
+    @Override
+    public Recipe read(String filename) throws IOException {
+        // Parse outside the lock so bulk loads can overlap
+        return Recipe.fromJsonBytes(readBody(filename));
+    }
+
+    @Override
+    public RecipeSummary readSummary(String filename) throws IOException {
+        return RecipeSummaryReader.read(readBody(filename), filename);
+    }
+
+    @Override
+    public synchronized void write(String filename, Recipe recipe) throws IOException {
+        append(OP_PUT, filename, recipe.toCompactJsonBytes());
+        channel.force(false);
+        compactIfWasteful();
+    }
+
+    @Override
+    public synchronized boolean create(String filename, Recipe recipe) throws IOException {
+        if (index.containsKey(filename)) {
+            return false;
+        }
+        write(filename, recipe);
+        return true;
+    }
+
+    /**
+     * Appends every record of the batch and syncs the pack once
+     */
+    @Override
+    public synchronized void writeBatch(Map<String, Recipe> changes) throws IOException {
+        for (Map.Entry<String, Recipe> change : changes.entrySet()) {
+            if (change.getValue() != null) {
+                append(OP_PUT, change.getKey(), change.getValue().toCompactJsonBytes());
+            } else if (index.containsKey(change.getKey())) {
+                append(OP_DELETE, change.getKey(), new byte[0]);
+            }
+        }
+        channel.force(false);
+        compactIfWasteful();
+    }
+
+    @Override
+    public synchronized boolean delete(String filename) throws IOException {
+        if (!index.containsKey(filename)) {
+            return false;
+        }
+        append(OP_DELETE, filename, new byte[0]);
+        channel.force(false);
+        compactIfWasteful();
+        return true;
+    }
+
+    /**
+     * Uses the offset of the live record, which changes on every write
+     */
+    @Override
+    public synchronized long version(String filename) {
+        Slot slot = index.get(filename);
+        return slot != null ? slot.recordOffset : -1;
+    }
+
+    @Override
+    public String describe(String filename) {
+        return file + "#" + filename;
+    }
+
+    /**
+     * All writes go through this process, so there is nothing external to watch for
+     */
+    @Override
+    public boolean watch(ChangeListener listener) {
+        return true;
+    }
+
+    /**
+     * Imports every recipe from another store (for example a JSON directory), syncing once at
+     * the end and then marking the import complete. Recipes already in the pack are left as they
+     * are, so running it again after an interrupted import only fills in what is missing.
+     */
+    public synchronized int importFrom(RecipeStore source) throws IOException {
+        int imported = 0;
+        for (String filename : source.listFilenames()) {
+            if (index.containsKey(filename)) {
+                continue;
+            }
+            try {
+                append(OP_PUT, filename, source.read(filename).toCompactJsonBytes());
+                imported++;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Warning: Could not import recipe " + filename + ": " + e.getMessage());
+            }
+        }
+        channel.force(false);
+        if (!importComplete) {
+            // Only once every recipe above is on disk
+            append(OP_IMPORTED, "", new byte[0]);
+            channel.force(false);
+        }
+        compactIfWasteful();
+        return imported;
+    }
+
+    /**
+     * Tells whether an import into this pack has run to the end
+     */
+    public synchronized boolean isImportComplete() {
+        return importComplete;
+    }
+
+    /**
+     * Exports every recipe to another store, returning the number exported
+     */
+    public int exportTo(RecipeStore target) throws IOException {
+        return RecipeStore.copy(this, target);
+    }
+
+    /**
+     * Gets the total size of superseded records that compaction would reclaim
+     */
+    public synchronized long getDeadBytes() {
+        return deadBytes;
+    }
+
+    /**
+     * Rewrites the pack with only live records, in filename order, and atomically replaces the old file
+     */
+    public synchronized void compact() throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        TreeMap<String, Slot> newIndex = new TreeMap<>();
+        boolean moved = false;
+
+        try {
+            try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writeHeader(out);
+                out.position(HEADER_SIZE);
+                long position = HEADER_SIZE;
+                if (importComplete) {
+                    position += writeImportedMarker(out);
+                }
+                for (Map.Entry<String, Slot> entry : index.entrySet()) {
+                    Slot slot = entry.getValue();
+                    long copied = 0;
+                    while (copied < slot.recordLength) {
+                        copied += channel.transferTo(slot.recordOffset + copied, slot.recordLength - copied, out);
+                    }
+                    newIndex.put(entry.getKey(), slot.movedTo(position));
+                    position += slot.recordLength;
+                }
+                out.force(true);
+            }
+
+            // Closed first, since some platforms cannot replace a file that is still open
+            channel.close();
+            try {
+                Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                moved = true;
+            } finally {
+                // Whichever pack is now in place; if the move failed it is the untouched old one
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(compacted);
+            }
+        }
+
+        index.clear();
+        index.putAll(newIndex);
+        endOffset = channel.size();
+        deadBytes = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        OPEN_STORES.remove(file, this);
+        channel.close();
+    }
+
+    /**
+     * Opens the pack file and rebuilds the offset index with one sequential scan
+     */
+    private void openChannel() throws IOException {
+        File parent = file.toFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (channel.size() == 0) {
+            writeHeader(channel);
+            channel.force(true);
+        }
+
+        endOffset = scan();
+        if (endOffset < channel.size()) {
+            // Drop a record torn by a crash during append
+            channel.truncate(endOffset);
+        }
+    }
+
+    private long scan() throws IOException {
+        InputStream stream = Channels.newInputStream(channel.position(0));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16));
+        long size = channel.size();
+
+        if (size < HEADER_SIZE || in.readInt() != MAGIC) {
+            throw new IOException("Not a recipe pack: " + file);
+        }
+        int formatVersion = in.readInt();
+        if (formatVersion == UNMARKED_FORMAT_VERSION) {
+            importComplete = true;
+        } else if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported recipe pack version " + formatVersion + ": " + file);
+        }
+
+        long position = HEADER_SIZE;
+        while (position + 4 <= size) {
+            int length = in.readInt();
+            long recordLength = 4L + length;
+            if (length < 3 || position + recordLength > size) {
+                break;
+            }
+
+            byte op = in.readByte();
+            int nameLength = in.readUnsignedShort();
+            if (nameLength > length - 3) {
+                break;
+            }
+            String filename = new String(in.readNBytes(nameLength), StandardCharsets.UTF_8);
+            int bodyLength = length - 3 - nameLength;
+            try {
+                in.skipNBytes(bodyLength);
+            } catch (EOFException e) {
+                break;
+            }
+
+            apply(op, filename, position, (int) recordLength, position + 7 + nameLength, bodyLength);
+            position += recordLength;
+        }
+        return position;
+    }
+
+    private synchronized byte[] readBody(String filename) throws IOException {
+        Slot slot = index.get(filename);
+        if (slot == null) {
+            throw new IOException("Recipe not found in pack: " + filename);
+        }
+        byte[] body = new byte[slot.bodyLength];
+        readFully(channel, ByteBuffer.wrap(body), slot.bodyOffset);
+        return body;
+    }
+
+    private void append(byte op, String filename, byte[] body) throws IOException {
+        byte[] name = filename.getBytes(StandardCharsets.UTF_8);
+        int length = 3 + name.length + body.length;
+
+        ByteArrayOutputStream record = new ByteArrayOutputStream(4 + length);
+        DataOutputStream out = new DataOutputStream(record);
+        out.writeInt(length);
+        out.writeByte(op);
+        out.writeShort(name.length);
+        out.write(name);
+        out.write(body);
+
+        long position = endOffset;
+        ByteBuffer buffer = ByteBuffer.wrap(record.toByteArray());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+        endOffset = position + 4 + length;
+
+        apply(op, filename, position, 4 + length, position + 7 + name.length, body.length);
+    }
+
+    private void apply(byte op, String filename, long recordOffset, int recordLength, long bodyOffset, int bodyLength)
+            throws IOException {
+        Slot previous;
+        if (op == OP_PUT) {
+            previous = index.put(filename, new Slot(recordOffset, recordLength, bodyOffset, bodyLength));
+        } else if (op == OP_DELETE) {
+            previous = index.remove(filename);
+            deadBytes += recordLength;
+        } else if (op == OP_IMPORTED) {
+            previous = null;
+            importComplete = true;
+        } else {
+            throw new IOException("Corrupt recipe pack record at offset " + recordOffset + ": " + file);
+        }
+
+        if (previous != null) {
+            deadBytes += previous.recordLength;
+        }
+    }
+
+    private void compactIfWasteful() throws IOException {
+        long liveBytes = endOffset - HEADER_SIZE - deadBytes;
+        if (deadBytes >= AUTO_COMPACT_MIN_DEAD_BYTES && deadBytes > liveBytes) {
+            compact();
+        }
+    }
+
+    private static void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    // Writes the import marker record at the channel's position, returning its length
+    private static int writeImportedMarker(FileChannel channel) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(7);
+        record.putInt(3).put(OP_IMPORTED).putShort((short) 0).flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        return 7;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Unexpected end of recipe pack");
+            }
+        }
+    }
+
+    /**
+     * Location of the live record for one filename
+     */
+    private static final class Slot {
+        private final long recordOffset;
+        private final int recordLength;
+        private final long bodyOffset;
+        private final int bodyLength;
+
+        private Slot(long recordOffset, int recordLength, long bodyOffset, int bodyLength) {
+            this.recordOffset = recordOffset;
+            this.recordLength = recordLength;
+            this.bodyOffset = bodyOffset;
+            this.bodyLength = bodyLength;
+        }
+
+        private Slot movedTo(long newRecordOffset) {
+            return new Slot(newRecordOffset, recordLength, newRecordOffset + (bodyOffset - recordOffset), bodyLength);
+        }
+    }
+}
@@ -32,6 +32,9 @@ public class Recipe {
     
     private static final ObjectMapper objectMapper = new ObjectMapper()
         .enable(SerializationFeature.INDENT_OUTPUT);
+    private static final ObjectMapper compactObjectMapper = new ObjectMapper();
+    // -Drecipe.jsonReader=databind reads recipes through ObjectMapper instead of the streaming reader
+    private static final boolean DATABIND_READER = "databind".equals(System.getProperty("recipe.jsonReader"));
     
     // Default constructor for Jackson
     public Recipe() {
@@ -40,6 +43,13 @@ public class Recipe {
         this.created = Instant.now().toString();
     }
     
+    // Used by RecipeJsonReader, which only falls back to the current time when the JSON has no creation time
+    Recipe(String created) {
+        this.ingredients = new ArrayList<>();
+        this.instructions = new ArrayList<>();
+        this.created = created;
+    }
+    
     public Recipe(String name, double servings) {
         this.name = SlugUtils.normalizeDisplayName(name);
         this.slug = SlugUtils.toSlug(name);
@@ -124,11 +134,19 @@ public class Recipe {
      * Creates a scaled version of this recipe
      */
     public Recipe scaled(double scaleFactor) {
+        return scaled(scaleFactor, false);
+    }
+    
+    /**
+     * Creates a scaled version of this recipe, optionally moving each amount into
+     * the unit it reads best in
+     */
+    public Recipe scaled(double scaleFactor, boolean normalizeUnits) {
         Recipe scaledRecipe = new Recipe(this.name + " (scaled)", (int) Math.ceil(this.servings * scaleFactor));
         
         // Scale ingredients
         for (Ingredient ingredient : this.ingredients) {
-            scaledRecipe.addIngredient(ingredient.scaled(scaleFactor));
+            scaledRecipe.addIngredient(ingredient.scaled(scaleFactor, normalizeUnits));
         }
         
         // Copy instructions (no scaling needed)
@@ -137,6 +155,25 @@ public class Recipe {
         return scaledRecipe;
     }
     
+    /**
+     * Copies this recipe and its ingredients, so changes to the copy never reach the original
+     */
+    Recipe copy() {
+        Recipe copy = new Recipe(this.created);
+        copy.name = this.name;
+        copy.slug = this.slug;
+        copy.servings = this.servings;
+        if (this.ingredients == null) {
+            copy.ingredients = null;
+        } else {
+            for (Ingredient ingredient : this.ingredients) {
+                copy.ingredients.add(ingredient == null ? null : ingredient.copy());
+            }
+        }
+        copy.instructions = this.instructions == null ? null : new ArrayList<>(this.instructions);
+        return copy;
+    }
+    
     /**
      * Validates that the recipe has required fields
      */
@@ -155,25 +192,55 @@ public class Recipe {
         return objectMapper.writeValueAsString(this);
     }
     
+    /**
+     * Serializes this recipe to pretty-printed UTF-8 JSON, as saveToFile writes it
+     */
+    public byte[] toJsonBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(this);
+    }
+    
     /**
      * Deserializes a recipe from JSON string
      */
     public static Recipe fromJson(String json) throws IOException {
-        return objectMapper.readValue(json, Recipe.class);
+        if (DATABIND_READER) {
+            return objectMapper.readValue(json, Recipe.class);
+        }
+        return RecipeJsonReader.read(json);
+    }
+    
+    /**
+     * Serializes this recipe to compact (unindented) UTF-8 JSON
+     */
+    public byte[] toCompactJsonBytes() throws IOException {
+        return compactObjectMapper.writeValueAsBytes(this);
+    }
+    
+    /**
+     * Deserializes a recipe from UTF-8 JSON bytes
+     */
+    public static Recipe fromJsonBytes(byte[] json) throws IOException {
+        if (DATABIND_READER) {
+            return objectMapper.readValue(json, Recipe.class);
+        }
+        return RecipeJsonReader.read(json);
     }
     
     /**
      * Loads a recipe from a JSON file
      */
     public static Recipe fromFile(File file) throws IOException {
-        return objectMapper.readValue(file, Recipe.class);
+        if (DATABIND_READER) {
+            return objectMapper.readValue(file, Recipe.class);
+        }
+        return RecipeJsonReader.read(file);
     }
     
     /**
      * Saves this recipe to a JSON file
      */
     public void saveToFile(File file) throws IOException {
-        objectMapper.writeValue(file, this);
+        AtomicFiles.write(file.toPath(), toJsonBytes());
     }
     
     @Override
@@ -0,0 +1,387 @@
+package recipe.common;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide cache of the recipes held by a recipe store.
+ *
+ * Entries are keyed on slug and start out as summaries streamed from each
+ * stored recipe; the full recipe is parsed the first time it is needed
+ * (opening it, listing full recipes or searching ingredients) and then kept.
+ * The store's change notifications mark individual recipes as stale; when the
+ * store cannot be watched (or notifications overflow) every recipe is
+ * re-checked by its store version instead.
+ *
+ * Cached recipes are never handed out or taken in directly: callers get copies
+ * and recorded recipes are copied, so a caller changing its Recipe object (an
+ * edit that is then cancelled, say) cannot change the cache.
+ */
+class RecipeCatalog {
+    private static final Map<Path, RecipeCatalog> CATALOGS = new ConcurrentHashMap<>();
+
+    private final RecipeStore store;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final IngredientIndex ingredientIndex = new IngredientIndex();
+    private final Set<String> staleFilenames = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rescanRequired = new AtomicBoolean(true);
+    private final AtomicLong changeCount = new AtomicLong();
+    private volatile boolean watching;
+    private List<Recipe> snapshot;
+    private List<RecipeSummary> summarySnapshot;
+    private RecipeLoadReport lastLoadReport;
+
+    private RecipeCatalog(RecipeStore store) {
+        this.store = store;
+        startWatching();
+    }
+
+    /**
+     * Gets the shared catalog for a recipe store; stores at the same location share one catalog
+     */
+    static RecipeCatalog forStore(RecipeStore store) {
+        return CATALOGS.computeIfAbsent(store.getLocation(), location -> new RecipeCatalog(store));
+    }
+
+    /**
+     * Gets copies of all cached recipes sorted by filename, refreshing stale entries first
+     */
+    synchronized List<Recipe> listRecipes() {
+        refresh();
+        loadBodies();
+        if (snapshot == null) {
+            List<Recipe> recipes = new ArrayList<>(entries.size());
+            for (Entry entry : sortedEntries()) {
+                recipes.add(entry.recipe);
+            }
+            snapshot = recipes;
+        }
+        List<Recipe> copies = new ArrayList<>(snapshot.size());
+        for (Recipe recipe : snapshot) {
+            copies.add(recipe.copy());
+        }
+        return copies;
+    }
+
+    /**
+     * Gets summaries of all recipes sorted by filename, refreshing stale entries first.
+     * Recipes that were never opened are only read as far as their summary fields.
+     */
+    synchronized List<RecipeSummary> listSummaries() {
+        refresh();
+        if (summarySnapshot == null) {
+            List<RecipeSummary> summaries = new ArrayList<>(entries.size());
+            for (Entry entry : sortedEntries()) {
+                summaries.add(entry.summary);
+            }
+            summarySnapshot = Collections.unmodifiableList(summaries);
+        }
+        return summarySnapshot;
+    }
+
+    /**
+     * Gets a copy of a single recipe by filename, loading it if it is not cached or has changed
+     */
+    synchronized Recipe getRecipe(String filename) throws IOException {
+        Entry entry = entries.get(SlugUtils.filenameToSlug(filename));
+        boolean stale = staleFilenames.remove(filename);
+        if (entry != null && entry.recipe != null && !stale
+                && (isWatching() || (entry.version != -1 && entry.version == store.version(filename)))) {
+            return entry.recipe.copy();
+        }
+
+        try {
+            long version = store.version(filename);
+            Recipe recipe = store.read(filename);
+            checkIngredients(recipe);
+            put(filename, version, recipe);
+            return recipe.copy();
+        } catch (IOException e) {
+            remove(filename);
+            throw e;
+        }
+    }
+
+    /**
+     * Finds copies of the recipes with an ingredient name or slug containing the search term, sorted by filename
+     */
+    synchronized List<Recipe> searchByIngredient(String searchTerm) {
+        refresh();
+        loadBodies();
+        List<String> filenames = new ArrayList<>();
+        for (String slug : ingredientIndex.search(searchTerm)) {
+            filenames.add(entries.get(slug).filename);
+        }
+        Collections.sort(filenames);
+
+        List<Recipe> recipes = new ArrayList<>(filenames.size());
+        for (String filename : filenames) {
+            recipes.add(entries.get(SlugUtils.filenameToSlug(filename)).recipe.copy());
+        }
+        return recipes;
+    }
+
+    /**
+     * Stores a copy of a recipe that was just written to the store without parsing it back
+     */
+    synchronized void record(String filename, Recipe recipe) {
+        put(filename, store.version(filename), recipe.copy());
+        changeCount.incrementAndGet();
+    }
+
+    /**
+     * Drops a recipe that was just deleted from the store
+     */
+    synchronized void forget(String filename) {
+        remove(filename);
+        changeCount.incrementAndGet();
+    }
+
+    /**
+     * Marks a recipe as changed so it is re-checked on the next access
+     */
+    void invalidate(String filename) {
+        staleFilenames.add(filename);
+        changeCount.incrementAndGet();
+    }
+
+    /**
+     * Gets a counter that moves whenever a change to the store is seen. When the store
+     * cannot be watched it moves on every call, since outside changes could go unseen.
+     */
+    long changeCount() {
+        return isWatching() ? changeCount.get() : changeCount.incrementAndGet();
+    }
+
+    /**
+     * Brings the cache in line with the store contents
+     */
+    private void refresh() {
+        if (!isWatching()) {
+            rescanRequired.set(false);
+            staleFilenames.clear();
+            rescan();
+            return;
+        }
+
+        if (staleFilenames.isEmpty()) {
+            return;
+        }
+
+        List<String> filenames = new ArrayList<>(staleFilenames);
+        staleFilenames.removeAll(filenames);
+        List<String> changed = new ArrayList<>();
+        for (String filename : filenames) {
+            Entry entry = entries.get(SlugUtils.filenameToSlug(filename));
+            long version = store.version(filename);
+            if (version == -1) {
+                remove(filename);
+            } else if (entry == null || entry.version != version) {
+                changed.add(filename);
+            }
+        }
+        Collections.sort(changed);
+        loadSummaries(changed);
+    }
+
+    /**
+     * Re-checks every stored recipe by its version
+     */
+    private void rescan() {
+        List<String> present;
+        try {
+            present = store.listFilenames();
+        } catch (IOException e) {
+            System.err.println("Warning: Could not list recipes in " + store.getLocation() + ": " + e.getMessage());
+            return;
+        }
+
+        Set<String> presentSet = new HashSet<>(present);
+        for (Entry entry : new ArrayList<>(entries.values())) {
+            if (!presentSet.contains(entry.filename)) {
+                remove(entry.filename);
+            }
+        }
+
+        List<String> changed = new ArrayList<>();
+        for (String filename : present) {
+            Entry entry = entries.get(SlugUtils.filenameToSlug(filename));
+            if (entry == null || entry.version != store.version(filename)) {
+                changed.add(filename);
+            }
+        }
+        loadSummaries(changed);
+    }
+
+    /**
+     * Reads the summaries of a batch of recipes; recipes that fail are dropped
+     */
+    private void loadSummaries(List<String> filenames) {
+        if (filenames.isEmpty()) {
+            return;
+        }
+
+        long[] versions = versions(filenames);
+        RecipeSummary[] summaries = RecipeLoader.loadSummaries(store, filenames);
+        for (int i = 0; i < summaries.length; i++) {
+            if (summaries[i] != null) {
+                putSummary(filenames.get(i), versions[i], summaries[i]);
+            } else {
+                remove(filenames.get(i));
+            }
+        }
+    }
+
+    /**
+     * Parses every recipe that so far only has a summary through the bulk loader; recipes that fail are dropped
+     */
+    private void loadBodies() {
+        List<String> filenames = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.recipe == null) {
+                filenames.add(entry.filename);
+            }
+        }
+        if (filenames.isEmpty()) {
+            return;
+        }
+        Collections.sort(filenames);
+
+        long[] versions = versions(filenames);
+        RecipeLoadReport report = RecipeLoader.loadAll(store, filenames);
+        for (int i = 0; i < report.getFileCount(); i++) {
+            Recipe recipe = report.getRecipe(i);
+            if (recipe != null) {
+                try {
+                    checkIngredients(recipe);
+                    put(filenames.get(i), versions[i], recipe);
+                    continue;
+                } catch (IOException e) {
+                    System.err.println("Warning: Could not load recipe from " + filenames.get(i) + ": " + e.getMessage());
+                }
+            }
+            remove(filenames.get(i));
+        }
+        lastLoadReport = report;
+    }
+
+    /**
+     * Rejects a recipe whose ingredient list, or one of its ingredients, is null ("ingredients": null
+     * is valid JSON); listing, scaling and the screens all expect a list of ingredients
+     */
+    private static void checkIngredients(Recipe recipe) throws IOException {
+        List<Ingredient> ingredients = recipe.getIngredients();
+        if (ingredients == null) {
+            throw new IOException("Recipe has no ingredient list");
+        }
+        if (ingredients.contains(null)) {
+            throw new IOException("Recipe has an empty ingredient entry");
+        }
+    }
+
+    /**
+     * Gets current versions; taken before reading so a concurrent change is picked up next time
+     */
+    private long[] versions(List<String> filenames) {
+        long[] versions = new long[filenames.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = store.version(filenames.get(i));
+        }
+        return versions;
+    }
+
+    private List<Entry> sortedEntries() {
+        List<Entry> sorted = new ArrayList<>(entries.values());
+        sorted.sort((e1, e2) -> e1.filename.compareTo(e2.filename));
+        return sorted;
+    }
+
+    /**
+     * Gets the report from the most recent bulk load, or null if nothing has been loaded
+     */
+    synchronized RecipeLoadReport getLastLoadReport() {
+        return lastLoadReport;
+    }
+
+    private void put(String filename, long version, Recipe recipe) {
+        String slug = SlugUtils.filenameToSlug(filename);
+        ingredientIndex.add(slug, recipe);
+        entries.put(slug, new Entry(filename, RecipeSummary.of(filename, recipe), recipe, version));
+        snapshot = null;
+        summarySnapshot = null;
+    }
+
+    private void putSummary(String filename, long version, RecipeSummary summary) {
+        String slug = SlugUtils.filenameToSlug(filename);
+        entries.put(slug, new Entry(filename, summary, null, version));
+        ingredientIndex.remove(slug);
+        snapshot = null;
+        summarySnapshot = null;
+    }
+
+    private void remove(String filename) {
+        String slug = SlugUtils.filenameToSlug(filename);
+        if (entries.remove(slug) != null) {
+            ingredientIndex.remove(slug);
+            snapshot = null;
+            summarySnapshot = null;
+        }
+    }
+
+    private boolean isWatching() {
+        return watching && !rescanRequired.get();
+    }
+
+    /**
+     * Subscribes to store changes; falls back to rescans if the store cannot be watched
+     */
+    private void startWatching() {
+        watching = store.watch(new RecipeStore.ChangeListener() {
+            @Override
+            public void changed(String filename) {
+                staleFilenames.add(filename);
+                changeCount.incrementAndGet();
+            }
+
+            @Override
+            public void overflowed() {
+                rescanRequired.set(true);
+                changeCount.incrementAndGet();
+            }
+
+            @Override
+            public void stopped() {
+                rescanRequired.set(true);
+                watching = false;
+                changeCount.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * A recipe's summary, and the full recipe once parsed, with the store version they were read from
+     */
+    private static final class Entry {
+        private final String filename;
+        private final RecipeSummary summary;
+        private final Recipe recipe;
+        private final long version;
+
+        private Entry(String filename, RecipeSummary summary, Recipe recipe, long version) {
+            this.filename = filename;
+            this.summary = summary;
+            this.recipe = recipe;
+            this.version = version;
+        }
+    }
+}
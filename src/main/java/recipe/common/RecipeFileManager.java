@@ -3,7 +3,6 @@ package recipe.common;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -12,16 +11,60 @@ import java.util.stream.Collectors;
  */
 public class RecipeFileManager {
     private final String recipesDirectory;
+    private final RecipeStore store;
+    private final RecipeCatalog catalog;
+    private final SlugSuffixRegistry slugRegistry;
     private static final String RECIPES_DIR_NAME = "recipes";
     
     public RecipeFileManager() {
-        this.recipesDirectory = RECIPES_DIR_NAME;
-        ensureRecipesDirectoryExists();
+        this(RECIPES_DIR_NAME);
     }
     
     public RecipeFileManager(String recipesDirectory) {
+        this(recipesDirectory, openDefaultStore(recipesDirectory));
+    }
+    
+    public RecipeFileManager(String recipesDirectory, RecipeStore store) {
         this.recipesDirectory = recipesDirectory;
         ensureRecipesDirectoryExists();
+        this.store = store;
+        this.catalog = RecipeCatalog.forStore(store);
+        this.slugRegistry = SlugSuffixRegistry.forStore(store);
+    }
+    
+    /**
+     * Opens the storage backend selected with -Drecipe.store: "json" (default) keeps one
+     * file per recipe in the directory, "packed" keeps every recipe in a single pack file
+     * (-Drecipe.packFile, default the directory name plus ".pack"). A new pack file is
+     * filled from the JSON files in the directory, and an import that did not finish is
+     * picked up again on the next start. With -Drecipe.writeBehind=true, saves
+     * return at once and are stored in batches on a background thread.
+     */
+    private static RecipeStore openDefaultStore(String recipesDirectory) {
+        RecipeStore store = openBackingStore(recipesDirectory);
+        if (Boolean.getBoolean("recipe.writeBehind")) {
+            return WriteBehindStore.forStore(store);
+        }
+        return store;
+    }
+    
+    private static RecipeStore openBackingStore(String recipesDirectory) {
+        JsonDirectoryStore directoryStore = new JsonDirectoryStore(recipesDirectory);
+        if (!"packed".equalsIgnoreCase(System.getProperty("recipe.store", "json"))) {
+            return directoryStore;
+        }
+        
+        String packFile = System.getProperty("recipe.packFile", recipesDirectory + ".pack");
+        try {
+            PackedRecipeStore packedStore = PackedRecipeStore.open(packFile);
+            if (!packedStore.isImportComplete()) {
+                packedStore.importFrom(directoryStore);
+            }
+            return packedStore;
+        } catch (IOException e) {
+            System.err.println("Warning: Could not open recipe pack " + packFile + ": " + e.getMessage());
+            return directoryStore;
+        }
     }
     
     /**
@@ -38,6 +81,35 @@ public class RecipeFileManager {
      * Saves a recipe to a JSON file
      */
     public String saveRecipe(Recipe recipe) throws IOException {
+        validateForSave(recipe);
+        return saveNewRecipe(recipe);
+    }
+    
+    /**
+     * Saves an edited recipe in place of the one stored under originalFilename. The original
+     * file is rewritten atomically while its name still fits the recipe's name; otherwise the
+     * recipe is saved under a new name first and the original removed afterwards, so a crash
+     * at any point leaves at least one complete copy of the recipe.
+     */
+    public String replaceRecipe(String originalFilename, Recipe recipe) throws IOException {
+        validateForSave(recipe);
+        
+        String baseSlug = SlugUtils.toSlug(recipe.getName());
+        if (originalFilename != null && SlugSuffixRegistry.isFilenameFor(originalFilename, baseSlug)
+                && store.exists(originalFilename)) {
+            store.write(originalFilename, recipe);
+            catalog.record(originalFilename, recipe);
+            return originalFilename;
+        }
+        
+        String filename = saveNewRecipe(recipe);
+        if (originalFilename != null && !originalFilename.equals(filename)) {
+            deleteRecipe(originalFilename);
+        }
+        return filename;
+    }
+    
+    private void validateForSave(Recipe recipe) {
         if (recipe == null) {
             throw new IllegalArgumentException("Recipe cannot be null");
         }
@@ -45,15 +117,35 @@ public class RecipeFileManager {
         if (!recipe.isValid()) {
             throw new IllegalArgumentException("Recipe is not valid");
         }
-        
-        String filename = SlugUtils.getUniqueRecipeFilename(recipe.getName(), recipesDirectory);
-        File file = new File(recipesDirectory, filename);
-        
-        recipe.saveToFile(file);
+    }
+    
+    /**
+     * Stores a recipe under the first free filename for its name
+     */
+    private String saveNewRecipe(Recipe recipe) throws IOException {
+        // Claim a free name; if another process created that file first, it is now known to be taken
+        String baseSlug = SlugUtils.toSlug(recipe.getName());
+        String filename;
+        do {
+            filename = slugRegistry.allocate(baseSlug);
+        } while (!createRecipe(filename, recipe));
+        catalog.record(filename, recipe);
         
         return filename;
     }
     
+    /**
+     * Stores a new recipe under a claimed filename, giving the name back if the write fails
+     */
+    private boolean createRecipe(String filename, Recipe recipe) throws IOException {
+        try {
+            return store.create(filename, recipe);
+        } catch (IOException e) {
+            slugRegistry.released(filename);
+            throw e;
+        }
+    }
+    
     /**
      * Loads a recipe from a JSON file by filename
      */
@@ -62,13 +154,11 @@ public class RecipeFileManager {
             throw new IllegalArgumentException("Filename cannot be null or empty");
         }
         
-        File file = new File(recipesDirectory, filename);
-        
-        if (!file.exists()) {
+        if (!store.exists(filename)) {
             throw new IOException("Recipe file not found: " + filename);
         }
         
-        return Recipe.fromFile(file);
+        return catalog.getRecipe(filename);
     }
     
     /**
@@ -87,22 +177,11 @@ public class RecipeFileManager {
      * Lists all available recipe files
      */
     public List<String> listRecipeFiles() {
-        File dir = new File(recipesDirectory);
-        
-        if (!dir.exists() || !dir.isDirectory()) {
+        try {
+            return store.listFilenames();
+        } catch (IOException e) {
             return new ArrayList<>();
         }
-        
-        File[] files = dir.listFiles((file, name) -> name.endsWith(".json"));
-        
-        if (files == null) {
-            return new ArrayList<>();
-        }
-        
-        return Arrays.stream(files)
-                .map(File::getName)
-                .sorted()
-                .collect(Collectors.toList());
     }
     
     /**
@@ -115,23 +194,57 @@ public class RecipeFileManager {
     }
     
     /**
-     * Lists all available recipes (loads them from files)
+     * Lists all available recipes (copies served from the shared catalog cache)
      */
     public List<Recipe> listRecipes() throws IOException {
-        List<Recipe> recipes = new ArrayList<>();
-        List<String> filenames = listRecipeFiles();
-        
-        for (String filename : filenames) {
-            try {
-                Recipe recipe = loadRecipe(filename);
-                recipes.add(recipe);
-            } catch (IOException e) {
-                // Skip invalid recipe files and continue
-                System.err.println("Warning: Could not load recipe from " + filename + ": " + e.getMessage());
-            }
+        return catalog.listRecipes();
+    }
+    
+    /**
+     * Lists the name, slug and created date of every recipe, sorted by filename
+     */
+    public List<RecipeSummary> listRecipeSummaries() {
+        return new ArrayList<>(catalog.listSummaries());
+    }
+    
+    /**
+     * Gets the shared catalog's summary snapshot itself; it is replaced, never modified, when recipes change
+     */
+    List<RecipeSummary> catalogSummaries() {
+        return catalog.listSummaries();
+    }
+    
+    /**
+     * Gets a counter that moves whenever a change to the recipes is seen
+     */
+    long catalogChangeCount() {
+        return catalog.changeCount();
+    }
+    
+    /**
+     * Opens the read-only compiled catalog configured with -Drecipe.compiledCatalog,
+     * compiling it first if it is missing or out of date. Returns null when no
+     * compiled catalog is configured or it cannot be opened.
+     */
+    public CompiledRecipeCatalog openCompiledCatalog() {
+        String path = System.getProperty("recipe.compiledCatalog");
+        if (path == null || path.trim().isEmpty()) {
+            return null;
         }
         
-        return recipes;
+        try {
+            return CompiledRecipeCatalog.openOrCompile(store, new File(path).toPath());
+        } catch (IOException e) {
+            System.err.println("Warning: Could not open compiled recipe catalog " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Gets per-file timings from the most recent bulk load of the recipes directory
+     */
+    public RecipeLoadReport getLastLoadReport() {
+        return catalog.getLastLoadReport();
     }
     
     /**
@@ -142,8 +255,17 @@ public class RecipeFileManager {
             return false;
         }
         
-        File file = new File(recipesDirectory, filename);
-        return file.exists() && file.delete();
+        boolean deleted;
+        try {
+            deleted = store.delete(filename);
+        } catch (IOException e) {
+            deleted = false;
+        }
+        if (deleted) {
+            slugRegistry.released(filename);
+        }
+        catalog.forget(filename);
+        return deleted;
     }
     
     /**
@@ -166,8 +288,7 @@ public class RecipeFileManager {
             return false;
         }
         
-        File file = new File(recipesDirectory, filename);
-        return file.exists() && file.isFile();
+        return store.exists(filename);
     }
     
     /**
@@ -186,7 +307,7 @@ public class RecipeFileManager {
      * Gets the full path to a recipe file
      */
     public String getRecipeFilePath(String filename) {
-        return new File(recipesDirectory, filename).getAbsolutePath();
+        return store.describe(filename);
     }
     
     /**
@@ -196,6 +317,27 @@ public class RecipeFileManager {
         return recipesDirectory;
     }
     
+    /**
+     * Waits until every save and delete made so far is stored durably
+     */
+    public void flush() throws IOException {
+        store.flush();
+    }
+    
+    /**
+     * Waits until every save and delete made through any recipe file manager is stored durably
+     */
+    public static void flushAll() throws IOException {
+        WriteBehindStore.flushAll();
+    }
+    
+    /**
+     * Gets the storage backend recipes are read from and written to
+     */
+    public RecipeStore getStore() {
+        return store;
+    }
+    
     /**
      * Gets the number of recipes
      */
@@ -204,7 +346,8 @@ public class RecipeFileManager {
     }
     
     /**
-     * Searches for recipes by name (case-insensitive)
+     * Searches for recipes by name (case-insensitive). Names are matched on the
+     * catalog's summaries, so only the matching recipes are read in full.
      */
     public List<Recipe> searchRecipesByName(String searchTerm) throws IOException {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
@@ -213,10 +356,20 @@ public class RecipeFileManager {
         
         String lowerSearchTerm = searchTerm.toLowerCase();
         
-        return listRecipes().stream()
-                .filter(recipe -> recipe.getName().toLowerCase().contains(lowerSearchTerm) ||
-                               recipe.getSlug().toLowerCase().contains(lowerSearchTerm))
-                .collect(Collectors.toList());
+        List<Recipe> matches = new ArrayList<>();
+        for (RecipeSummary summary : catalog.listSummaries()) {
+            if (!summary.getName().toLowerCase().contains(lowerSearchTerm)
+                    && !summary.getSlug().toLowerCase().contains(lowerSearchTerm)) {
+                continue;
+            }
+            try {
+                matches.add(catalog.getRecipe(summary.getFilename()));
+            } catch (IOException e) {
+                // Removed or unreadable since it was listed; a full listing would have dropped it too
+                System.err.println("Warning: Could not read recipe " + summary.getFilename() + ": " + e.getMessage());
+            }
+        }
+        return matches;
     }
     
     /**
@@ -227,13 +380,6 @@ public class RecipeFileManager {
             return new ArrayList<>();
         }
         
-        String lowerIngredientName = ingredientName.toLowerCase();
-        
-        return listRecipes().stream()
-                .filter(recipe -> recipe.getIngredients().stream()
-                        .anyMatch(ingredient -> 
-                            ingredient.getName().toLowerCase().contains(lowerIngredientName) ||
-                            ingredient.getSlug().toLowerCase().contains(lowerIngredientName)))
-                .collect(Collectors.toList());
+        return catalog.searchByIngredient(ingredientName);
     }
 }
\ No newline at end of file
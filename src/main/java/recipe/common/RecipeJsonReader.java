@@ -0,0 +1,225 @@
+package recipe.common;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader for recipe JSON, used instead of reflection-based databind.
+ *
+ * Fields are applied in file order through the same setters databind calls, so
+ * name normalization and slug derivation behave identically. Both "isPrime" and
+ * the duplicated "prime" key set the prime flag, and fields this reader does not
+ * know are skipped. The shared JsonFactory recycles the parser's byte and char
+ * buffers per thread, so reading many files does not reallocate them.
+ */
+class RecipeJsonReader {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Reads a recipe file
+     */
+    static Recipe read(File file) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(file)) {
+            return readDocument(parser);
+        }
+    }
+
+    /**
+     * Reads a recipe from UTF-8 JSON bytes
+     */
+    static Recipe read(byte[] json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return readDocument(parser);
+        }
+    }
+
+    /**
+     * Reads a recipe from a JSON string
+     */
+    static Recipe read(String json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return readDocument(parser);
+        }
+    }
+
+    private static Recipe readDocument(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new IOException("No content to read a recipe from");
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return readRecipe(parser);
+    }
+
+    private static Recipe readRecipe(JsonParser parser) throws IOException {
+        expect(parser, JsonToken.START_OBJECT, "recipe");
+        Recipe recipe = new Recipe((String) null);
+        boolean hasCreated = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "name":
+                    recipe.setName(readText(parser, value));
+                    break;
+                case "slug":
+                    recipe.setSlug(readText(parser, value));
+                    break;
+                case "servings":
+                    recipe.setServings(readDouble(parser, value));
+                    break;
+                case "ingredients":
+                    recipe.setIngredients(readIngredients(parser, value));
+                    break;
+                case "instructions":
+                    recipe.setInstructions(readTextList(parser, value));
+                    break;
+                case "created":
+                    recipe.setCreated(readText(parser, value));
+                    hasCreated = true;
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+
+        if (!hasCreated) {
+            recipe.setCreated(Instant.now().toString());
+        }
+        return recipe;
+    }
+
+    private static List<Ingredient> readIngredients(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, JsonToken.START_ARRAY, "ingredients");
+
+        List<Ingredient> ingredients = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            ingredients.add(token == JsonToken.VALUE_NULL ? null : readIngredient(parser));
+        }
+        return ingredients;
+    }
+
+    private static Ingredient readIngredient(JsonParser parser) throws IOException {
+        expect(parser, JsonToken.START_OBJECT, "ingredient");
+        Ingredient ingredient = new Ingredient();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "name":
+                    ingredient.setName(readText(parser, value));
+                    break;
+                case "slug":
+                    ingredient.setSlug(readText(parser, value));
+                    break;
+                case "amount":
+                    ingredient.setAmount(readDouble(parser, value));
+                    break;
+                case "unit":
+                    ingredient.setUnit(readText(parser, value));
+                    break;
+                case "isPrime":
+                case "prime":
+                    ingredient.setPrime(readBoolean(parser, value));
+                    break;
+                case "scalingFactor":
+                    ingredient.setScalingFactor(readDouble(parser, value));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return ingredient;
+    }
+
+    private static List<String> readTextList(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, JsonToken.START_ARRAY, "list");
+
+        List<String> values = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            values.add(readText(parser, token));
+        }
+        return values;
+    }
+
+    private static String readText(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!value.isScalarValue()) {
+            throw new IOException("Expected a text value for \"" + parser.getCurrentName() + "\" at "
+                + parser.getCurrentLocation());
+        }
+        return parser.getText();
+    }
+
+    private static double readDouble(JsonParser parser, JsonToken value) throws IOException {
+        switch (value) {
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+            case VALUE_NULL:
+                return 0.0;
+            case VALUE_STRING:
+                try {
+                    return Double.parseDouble(parser.getText().trim());
+                } catch (NumberFormatException e) {
+                    throw new IOException("Expected a number for \"" + parser.getCurrentName() + "\" at "
+                        + parser.getCurrentLocation());
+                }
+            default:
+                throw new IOException("Expected a number for \"" + parser.getCurrentName() + "\" at "
+                    + parser.getCurrentLocation());
+        }
+    }
+
+    private static boolean readBoolean(JsonParser parser, JsonToken value) throws IOException {
+        switch (value) {
+            case VALUE_TRUE:
+                return true;
+            case VALUE_FALSE:
+            case VALUE_NULL:
+                return false;
+            case VALUE_NUMBER_INT:
+                return parser.getIntValue() != 0;
+            case VALUE_STRING:
+                String text = parser.getText().trim();
+                if ("true".equalsIgnoreCase(text) || "false".equalsIgnoreCase(text)) {
+                    return Boolean.parseBoolean(text);
+                }
+                throw new IOException("Expected a boolean for \"" + parser.getCurrentName() + "\" at "
+                    + parser.getCurrentLocation());
+            default:
+                throw new IOException("Expected a boolean for \"" + parser.getCurrentName() + "\" at "
+                    + parser.getCurrentLocation());
+        }
+    }
+
+    private static void expect(JsonParser parser, JsonToken expected, String what) throws IOException {
+        if (parser.currentToken() != expected) {
+            throw new IOException("Expected " + what + " to start with " + expected + " but found "
+                + parser.currentToken() + " at " + parser.getCurrentLocation());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package recipe.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Long-lived recipe listing service shared by every screen.
+ *
+ * Holds one RecipeFileManager and keeps the recipe list sorted by name, the
+ * name search index and the compiled catalog between screens. Each is rebuilt
+ * only when the recipes have actually changed, so moving between menus does
+ * not re-list, re-sort or re-index the catalog.
+ */
+public class RecipeLibrary {
+    private final RecipeFileManager fileManager;
+    private List<RecipeSummary> catalogSummaries;
+    private List<RecipeSummary> sortedSummaries;
+    private List<RecipeSummary> indexedRecipes;
+    private TrigramIndex nameIndex;
+    private CompiledRecipeCatalog compiledCatalog;
+    private long compiledCatalogChangeCount;
+    private boolean compiledCatalogOpened;
+
+    public RecipeLibrary(RecipeFileManager fileManager) {
+        this.fileManager = fileManager;
+    }
+
+    /**
+     * Gets the file manager recipes are saved and loaded through
+     */
+    public RecipeFileManager getFileManager() {
+        return fileManager;
+    }
+
+    /**
+     * Gets every recipe's summary sorted by name (case-insensitive), re-sorting only after changes
+     */
+    public synchronized List<RecipeSummary> getSortedSummaries() {
+        List<RecipeSummary> current = fileManager.catalogSummaries();
+        if (current != catalogSummaries) {
+            List<RecipeSummary> sorted = new ArrayList<>(current);
+            sorted.sort((r1, r2) -> r1.getName().compareToIgnoreCase(r2.getName()));
+            sortedSummaries = Collections.unmodifiableList(sorted);
+            catalogSummaries = current;
+        }
+        return sortedSummaries;
+    }
+
+    /**
+     * Gets the compiled catalog configured with -Drecipe.compiledCatalog (or null), reopening it only after changes
+     */
+    public synchronized CompiledRecipeCatalog getCompiledCatalog() {
+        long changeCount = fileManager.catalogChangeCount();
+        if (!compiledCatalogOpened || changeCount != compiledCatalogChangeCount) {
+            compiledCatalog = fileManager.openCompiledCatalog();
+            compiledCatalogChangeCount = changeCount;
+            compiledCatalogOpened = true;
+        }
+        return compiledCatalog;
+    }
+
+    /**
+     * Gets a name search index over a recipe list from this library, built once per list
+     */
+    public synchronized TrigramIndex getNameIndex(List<RecipeSummary> recipes) {
+        if (recipes != indexedRecipes) {
+            nameIndex = buildNameIndex(recipes);
+            indexedRecipes = recipes;
+        }
+        return nameIndex;
+    }
+
+    /**
+     * Indexes the lowercased name and slug of each recipe, joined so a match cannot span both
+     */
+    private static TrigramIndex buildNameIndex(List<RecipeSummary> recipes) {
+        List<String> keys = new ArrayList<>(recipes.size());
+        for (RecipeSummary recipe : recipes) {
+            if (recipe == null || recipe.getName() == null || recipe.getSlug() == null) {
+                keys.add(null);
+            } else {
+                keys.add(recipe.getName().toLowerCase() + '\0' + recipe.getSlug().toLowerCase());
+            }
+        }
+        return new TrigramIndex(keys);
+    }
+}
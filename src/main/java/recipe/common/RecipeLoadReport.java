@@ -0,0 +1,116 @@
+package recipe.common;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Outcome of a bulk recipe load, including how long each file took to parse
+ */
+public class RecipeLoadReport {
+    private final List<String> filenames;
+    private final Recipe[] recipes;
+    private final long[] parseNanos;
+    private final long elapsedNanos;
+    private final int threads;
+
+    RecipeLoadReport(List<String> filenames, Recipe[] recipes, long[] parseNanos, long elapsedNanos, int threads) {
+        this.filenames = filenames;
+        this.recipes = recipes;
+        this.parseNanos = parseNanos;
+        this.elapsedNanos = elapsedNanos;
+        this.threads = threads;
+    }
+
+    /**
+     * Gets the number of files in the batch
+     */
+    public int getFileCount() {
+        return filenames.size();
+    }
+
+    /**
+     * Gets the number of files that could not be loaded
+     */
+    public int getFailureCount() {
+        int failures = 0;
+        for (Recipe recipe : recipes) {
+            if (recipe == null) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Gets the filename at a position in the batch
+     */
+    public String getFilename(int index) {
+        return filenames.get(index);
+    }
+
+    /**
+     * Gets the recipe loaded at a position in the batch, or null if it failed
+     */
+    public Recipe getRecipe(int index) {
+        return recipes[index];
+    }
+
+    /**
+     * Gets the time spent reading and parsing one file, in nanoseconds
+     */
+    public long getParseNanos(int index) {
+        return parseNanos[index];
+    }
+
+    /**
+     * Gets the wall-clock time for the whole batch, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the number of loader threads used
+     */
+    public int getThreadCount() {
+        return threads;
+    }
+
+    /**
+     * Gets the filenames of the slowest files, slowest first
+     */
+    public List<String> getSlowestFiles(int limit) {
+        List<Integer> indexes = new ArrayList<>(filenames.size());
+        for (int i = 0; i < filenames.size(); i++) {
+            indexes.add(i);
+        }
+        indexes.sort(Comparator.comparingLong((Integer i) -> parseNanos[i]).reversed());
+
+        List<String> slowest = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, indexes.size()); i++) {
+            slowest.add(filenames.get(indexes.get(i)));
+        }
+        return slowest;
+    }
+
+    /**
+     * Gets a one-line summary suitable for logging
+     */
+    public String summary() {
+        long totalParseNanos = 0;
+        long maxParseNanos = 0;
+        for (long nanos : parseNanos) {
+            totalParseNanos += nanos;
+            maxParseNanos = Math.max(maxParseNanos, nanos);
+        }
+        int count = filenames.size();
+        return String.format("Loaded %d recipe file(s) in %.1f ms on %d thread(s): avg %.1f us, max %.1f us per file, %d failed",
+            count,
+            elapsedNanos / 1_000_000.0,
+            threads,
+            count == 0 ? 0.0 : totalParseNanos / 1_000.0 / count,
+            maxParseNanos / 1_000.0,
+            getFailureCount());
+    }
+}
@@ -0,0 +1,136 @@
+package recipe.common;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads batches of recipes from a store, in parallel on a bounded pool when the batch is large enough
+ */
+class RecipeLoader {
+    private static final int THREADS = Math.max(1,
+        Integer.getInteger("recipe.loadThreads", Runtime.getRuntime().availableProcessors()));
+    private static final int PARALLEL_THRESHOLD = 32;
+    private static final boolean PRINT_TIMINGS = Boolean.getBoolean("recipe.loadTimings");
+
+    private static ExecutorService executor;
+
+    /**
+     * Loads the given files, returning recipes in the same order as the filenames.
+     * Files that cannot be parsed are skipped with a warning and left null.
+     */
+    static RecipeLoadReport loadAll(RecipeStore store, List<String> filenames) {
+        Recipe[] recipes = new Recipe[filenames.size()];
+        long[] parseNanos = new long[filenames.size()];
+        long start = System.nanoTime();
+
+        int threads = run(filenames, recipes, parseNanos, store::read);
+
+        RecipeLoadReport report = new RecipeLoadReport(filenames, recipes, parseNanos,
+            System.nanoTime() - start, threads);
+        if (PRINT_TIMINGS) {
+            System.err.println(report.summary());
+        }
+        return report;
+    }
+
+    /**
+     * Reads only the summaries of the given files, in the same order as the filenames.
+     * Files that cannot be read are skipped with a warning and left null.
+     */
+    static RecipeSummary[] loadSummaries(RecipeStore store, List<String> filenames) {
+        RecipeSummary[] summaries = new RecipeSummary[filenames.size()];
+        long start = System.nanoTime();
+
+        int threads = run(filenames, summaries, new long[filenames.size()], store::readSummary);
+
+        if (PRINT_TIMINGS) {
+            System.err.printf("Read %d recipe summaries in %.1f ms on %d thread(s)%n",
+                filenames.size(), (System.nanoTime() - start) / 1_000_000.0, threads);
+        }
+        return summaries;
+    }
+
+    /**
+     * Reads every file into results, on the pool when the batch is large enough; returns the thread count
+     */
+    private static <T> int run(List<String> filenames, T[] results, long[] parseNanos, Reader<T> reader) {
+        int threads = Math.min(THREADS, filenames.size() / PARALLEL_THRESHOLD + 1);
+        if (threads <= 1) {
+            loadRange(filenames, results, parseNanos, reader, new AtomicInteger());
+        } else {
+            AtomicInteger next = new AtomicInteger();
+            List<Future<?>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor().submit(() -> loadRange(filenames, results, parseNanos, reader, next)));
+            }
+            for (Future<?> worker : workers) {
+                awaitWorker(worker);
+            }
+        }
+        return threads;
+    }
+
+    /**
+     * Claims file indexes until the batch is exhausted
+     */
+    private static <T> void loadRange(List<String> filenames, T[] results, long[] parseNanos,
+                                      Reader<T> reader, AtomicInteger next) {
+        int index;
+        while ((index = next.getAndIncrement()) < filenames.size()) {
+            String filename = filenames.get(index);
+            long start = System.nanoTime();
+            try {
+                results[index] = reader.read(filename);
+            } catch (IOException e) {
+                // Skip invalid recipe files and continue
+                System.err.println("Warning: Could not load recipe from " + filename + ": " + e.getMessage());
+            } catch (RuntimeException e) {
+                // A reader failing on one file must not abort the rest of the batch
+                System.err.println("Warning: Could not load recipe from " + filename + ": " + e);
+            }
+            parseNanos[index] = System.nanoTime() - start;
+        }
+    }
+
+    private static void awaitWorker(Future<?> worker) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                worker.get();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Recipe loader failed", e.getCause());
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reads one stored file
+     */
+    private interface Reader<T> {
+        T read(String filename) throws IOException;
+    }
+
+    private static synchronized ExecutorService executor() {
+        if (executor == null) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+                Thread thread = new Thread(runnable, "recipe-loader-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,138 @@
+package recipe.common;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage backend for recipes. Recipes are addressed by filename (slug plus
+ * ".json") whatever the physical layout, so backends can be swapped behind
+ * RecipeFileManager.
+ */
+public interface RecipeStore {
+
+    /**
+     * Gets the path this store keeps its data at; stores with the same location share a catalog
+     */
+    Path getLocation();
+
+    /**
+     * Lists the filenames of all stored recipes, sorted
+     */
+    List<String> listFilenames() throws IOException;
+
+    /**
+     * Checks if a recipe is stored under a filename
+     */
+    boolean exists(String filename);
+
+    /**
+     * Reads a stored recipe
+     */
+    Recipe read(String filename) throws IOException;
+
+    /**
+     * Reads only the name, slug and created date of a stored recipe
+     */
+    default RecipeSummary readSummary(String filename) throws IOException {
+        return RecipeSummary.of(filename, read(filename));
+    }
+
+    /**
+     * Stores a recipe under a filename, replacing any previous version
+     */
+    void write(String filename, Recipe recipe) throws IOException;
+
+    /**
+     * Stores a recipe under a filename only if nothing is stored there yet, returning false if it is taken
+     */
+    default boolean create(String filename, Recipe recipe) throws IOException {
+        if (exists(filename)) {
+            return false;
+        }
+        write(filename, recipe);
+        return true;
+    }
+
+    /**
+     * Applies a batch of changes in order, where a null recipe deletes the filename.
+     * Backends share what syncs they can across the batch: the JSON directory still
+     * syncs each file but the directory only once, the packed store its pack once.
+     */
+    default void writeBatch(Map<String, Recipe> changes) throws IOException {
+        for (Map.Entry<String, Recipe> change : changes.entrySet()) {
+            if (change.getValue() == null) {
+                delete(change.getKey());
+            } else {
+                write(change.getKey(), change.getValue());
+            }
+        }
+    }
+
+    /**
+     * Waits until every change this store has accepted is durably stored; a no-op for stores that write synchronously
+     */
+    default void flush() throws IOException {
+    }
+
+    /**
+     * Removes a stored recipe, returning false if there was nothing to remove
+     */
+    boolean delete(String filename) throws IOException;
+
+    /**
+     * Gets a value that changes whenever the stored recipe changes, or -1 if it is missing
+     */
+    long version(String filename);
+
+    /**
+     * Gets a human-readable location for a stored recipe
+     */
+    String describe(String filename);
+
+    /**
+     * Starts reporting changes made outside this process; returns false if they cannot be observed
+     */
+    boolean watch(ChangeListener listener);
+
+    /**
+     * Receives change notifications from a watched store
+     */
+    interface ChangeListener {
+        /**
+         * Called when a single recipe may have changed
+         */
+        void changed(String filename);
+
+        /**
+         * Called when changes may have been missed and everything must be re-checked
+         */
+        void overflowed();
+
+        /**
+         * Called when the store can no longer report changes
+         */
+        void stopped();
+    }
+
+    /**
+     * Copies every recipe from one store to another, returning the number copied.
+     * Recipes that cannot be read are skipped with a warning.
+     */
+    static int copy(RecipeStore source, RecipeStore target) throws IOException {
+        int copied = 0;
+        for (String filename : source.listFilenames()) {
+            Recipe recipe;
+            try {
+                recipe = source.read(filename);
+            } catch (IOException e) {
+                System.err.println("Warning: Could not copy recipe " + filename + ": " + e.getMessage());
+                continue;
+            }
+            target.write(filename, recipe);
+            copied++;
+        }
+        return copied;
+    }
+}
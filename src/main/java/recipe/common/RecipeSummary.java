@@ -0,0 +1,62 @@
+package recipe.common;
+
+/**
+ * The fields of a recipe shown in recipe lists, without its ingredients or instructions
+ */
+public class RecipeSummary {
+    private final String name;
+    private final String slug;
+    private final String created;
+    private final String filename;
+    private final int row;
+
+    public RecipeSummary(String name, String slug, String created, String filename) {
+        this(name, slug, created, filename, -1);
+    }
+
+    RecipeSummary(String name, String slug, String created, String filename, int row) {
+        this.name = name;
+        this.slug = slug;
+        this.created = created;
+        this.filename = filename;
+        this.row = row;
+    }
+
+    /**
+     * Creates a summary of a recipe that is already loaded
+     */
+    public static RecipeSummary of(String filename, Recipe recipe) {
+        return new RecipeSummary(recipe.getName(), recipe.getSlug(), recipe.getCreated(), filename);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSlug() {
+        return slug;
+    }
+
+    public String getCreated() {
+        return created;
+    }
+
+    /**
+     * Gets the filename the full recipe is stored under
+     */
+    public String getFilename() {
+        return filename;
+    }
+
+    /**
+     * Gets the row in the compiled catalog this summary was read from, or -1
+     */
+    int getRow() {
+        return row;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + filename + ")";
+    }
+}
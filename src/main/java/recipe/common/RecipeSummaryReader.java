@@ -0,0 +1,88 @@
+package recipe.common;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Reads the summary fields of a stored recipe with the Jackson streaming parser.
+ *
+ * Only name, slug and created are turned into values; ingredients, instructions
+ * and any other nested content are skipped token by token without building
+ * objects. Fields are applied in file order with the same rules as Recipe's
+ * setters, so a summary matches the recipe that a full load would produce.
+ */
+class RecipeSummaryReader {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Reads the summary of a recipe file
+     */
+    static RecipeSummary read(File file, String filename) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(file)) {
+            return read(parser, filename);
+        }
+    }
+
+    /**
+     * Reads the summary of a recipe held as UTF-8 JSON bytes
+     */
+    static RecipeSummary read(byte[] json, String filename) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return read(parser, filename);
+        }
+    }
+
+    private static RecipeSummary read(JsonParser parser, String filename) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object in " + filename);
+        }
+
+        String name = null;
+        String slug = null;
+        String created = null;
+        boolean hasCreated = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("name".equals(field)) {
+                // Same as Recipe.setName, which also re-derives the slug
+                String rawName = textValue(parser, value);
+                name = SlugUtils.normalizeDisplayName(rawName);
+                slug = SlugUtils.toSlug(rawName);
+            } else if ("slug".equals(field)) {
+                slug = textValue(parser, value);
+            } else if ("created".equals(field)) {
+                created = textValue(parser, value);
+                hasCreated = true;
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            throw new IOException("Malformed recipe JSON in " + filename);
+        }
+
+        if (!hasCreated) {
+            // A full load keeps the creation time set by Recipe's constructor
+            created = Instant.now().toString();
+        }
+        return new RecipeSummary(name, slug, created, filename);
+    }
+
+    private static String textValue(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value.isStructStart()) {
+            throw new IOException("Expected a text value for \"" + parser.getCurrentName() + "\"");
+        }
+        return parser.getValueAsString();
+    }
+}
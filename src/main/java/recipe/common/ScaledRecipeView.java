@@ -0,0 +1,75 @@
+package recipe.common;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read-only view of a recipe scaled by a factor.
+ *
+ * Nothing is copied: names, units and instructions are read from the wrapped
+ * recipe, and each amount is worked out (amount * factor * scalingFactor, as
+ * Ingredient.scaled does) when it is asked for. Use Recipe.scaled when a
+ * scaled recipe has to be saved or changed.
+ */
+public final class ScaledRecipeView {
+    private final Recipe recipe;
+    private final double scaleFactor;
+
+    public ScaledRecipeView(Recipe recipe, double scaleFactor) {
+        this.recipe = recipe;
+        this.scaleFactor = scaleFactor;
+    }
+
+    /**
+     * Gets the recipe being scaled
+     */
+    public Recipe getRecipe() {
+        return recipe;
+    }
+
+    public double getScaleFactor() {
+        return scaleFactor;
+    }
+
+    /**
+     * Gets the name shown for the scaled recipe, the same as Recipe.scaled would give it
+     */
+    public String getName() {
+        return recipe.getName() + " (scaled)";
+    }
+
+    /**
+     * Gets the servings rounded up to a whole number, as Recipe.scaled does
+     */
+    public double getServings() {
+        return (int) Math.ceil(recipe.getServings() * scaleFactor);
+    }
+
+    public int getIngredientCount() {
+        return recipe.getIngredients().size();
+    }
+
+    public String getIngredientName(int index) {
+        return recipe.getIngredients().get(index).getName();
+    }
+
+    public String getIngredientUnit(int index) {
+        return recipe.getIngredients().get(index).getUnit();
+    }
+
+    public boolean isIngredientPrime(int index) {
+        return recipe.getIngredients().get(index).isPrime();
+    }
+
+    /**
+     * Gets an ingredient's scaled amount
+     */
+    public double getIngredientAmount(int index) {
+        Ingredient ingredient = recipe.getIngredients().get(index);
+        return ingredient.getAmount() * scaleFactor * ingredient.getScalingFactor();
+    }
+
+    public List<String> getInstructions() {
+        return Collections.unmodifiableList(recipe.getInstructions());
+    }
+}
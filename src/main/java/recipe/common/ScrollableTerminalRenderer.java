@@ -3,13 +3,32 @@ package recipe.common;
 import com.googlecode.lanterna.TextColor;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A renderer that provides scrollable terminal output with line-by-line display
  * Similar to Claude Code's conversational interface
  */
 public class ScrollableTerminalRenderer {
+  // Color escape sequences of the ANSI and 256 indexed colors, built once; DEFAULT resets, as the
+  // terminal's own default may differ. RGB colors are too many to keep and are written as they come
+  private static final byte[] RESET_CODE = {0x1b, '[', '0', 'm'};
+  private static final Map<TextColor.ANSI, byte[]> ANSI_COLOR_CODES = new EnumMap<>(TextColor.ANSI.class);
+  private static final TextColor.Indexed[] INDEXED_COLORS = new TextColor.Indexed[256];
+  private static final byte[][] INDEXED_COLOR_CODES = new byte[256][];
+
+  static {
+    for (TextColor.ANSI color : TextColor.ANSI.values()) {
+      ANSI_COLOR_CODES.put(color, color == TextColor.ANSI.DEFAULT ? RESET_CODE : buildColorCode(color));
+    }
+    for (int index = 0; index < INDEXED_COLORS.length; index++) {
+      INDEXED_COLORS[index] = new TextColor.Indexed(index);
+      INDEXED_COLOR_CODES[index] = buildColorCode(INDEXED_COLORS[index]);
+    }
+  }
+
   private final Terminal terminal;
   private final List<String> outputBuffer;
   private final List<TextColor> colorBuffer;
@@ -35,10 +54,9 @@ public class ScrollableTerminalRenderer {
       text = "";
     }
 
-    // Use System.out for natural terminal scrolling behavior
-    String colorCode = getAnsiColorCode(color);
-    System.out.println("\033[" + colorCode + "m" + text + "\033[0m");
-    System.out.flush();
+    // Printed as a stream for natural terminal scrolling behavior; the terminal sends it before the next input
+    write(color, text);
+    write(color, System.lineSeparator());
   }
 
   // Adds a blank line
@@ -57,10 +75,12 @@ public class ScrollableTerminalRenderer {
       text = "";
     }
 
-    // Use System.out for natural terminal behavior
-    String colorCode = getAnsiColorCode(color);
-    System.out.print("\033[" + colorCode + "m" + text + "\033[0m");
-    System.out.flush();
+    write(color, text);
+  }
+
+  // Sends everything printed so far without waiting for the next input
+  public void flush() throws IOException {
+    terminal.flushConsole();
   }
 
   // Prints a header with a distinctive style
@@ -208,24 +228,42 @@ public class ScrollableTerminalRenderer {
     return outputBuffer.size();
   }
 
-  // Converts Lanterna TextColor to ANSI escape code
-  private String getAnsiColorCode(TextColor color) {
-    if (color == TextColor.ANSI.RED)
-      return "31";
-    if (color == TextColor.ANSI.GREEN)
-      return "32";
-    if (color == TextColor.ANSI.YELLOW)
-      return "33";
-    if (color == TextColor.ANSI.BLUE)
-      return "34";
-    if (color == TextColor.ANSI.MAGENTA)
-      return "35";
-    if (color == TextColor.ANSI.CYAN)
-      return "36";
-    if (color == TextColor.ANSI.WHITE)
-      return "37";
-    if (color == TextColor.ANSI.CYAN_BRIGHT)
-      return "96";
-    return "0"; // Default
+  // Queues text in a color; RGB sequences are written straight into the terminal's buffer
+  private void write(TextColor color, CharSequence text) {
+    if (color instanceof TextColor.RGB) {
+      terminal.writeConsole((TextColor.RGB) color, text);
+    } else {
+      terminal.writeConsole(getAnsiColorCode(color), text);
+    }
+  }
+
+  // Converts a Lanterna TextColor to its ANSI escape sequence: the 16 ANSI colors (normal and
+  // bright) and the 256 indexed colors come from the tables, anything else is built each time
+  private static byte[] getAnsiColorCode(TextColor color) {
+    if (color instanceof TextColor.ANSI) {
+      return ANSI_COLOR_CODES.get((TextColor.ANSI) color);
+    }
+    if (color == null) {
+      return RESET_CODE;
+    }
+    if (color instanceof TextColor.Indexed) {
+      // Indexed has no index getter; its hash code is 129 plus the index, checked against the table
+      int index = color.hashCode() - 129;
+      if (index >= 0 && index < INDEXED_COLORS.length && INDEXED_COLORS[index].equals(color)) {
+        return INDEXED_COLOR_CODES[index];
+      }
+    }
+    return buildColorCode(color);
+  }
+
+  // Wraps a color's SGR parameters (such as "31", "38;5;208" or "38;2;255;128;0") as ESC [ ... m
+  private static byte[] buildColorCode(TextColor color) {
+    byte[] parameters = color.getForegroundSGRSequence();
+    byte[] code = new byte[parameters.length + 3];
+    code[0] = 0x1b;
+    code[1] = '[';
+    System.arraycopy(parameters, 0, code, 2, parameters.length);
+    code[code.length - 1] = 'm';
+    return code;
   }
 }
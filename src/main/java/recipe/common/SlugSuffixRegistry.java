@@ -0,0 +1,132 @@
+package recipe.common;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide record of the numeric suffixes in use for each base slug of a recipe store.
+ *
+ * The store is listed once, on first use; after that saves and deletes keep the
+ * record current, so finding a free name for "chicken-soup" is a BitSet lookup
+ * instead of probing chicken-soup-2, chicken-soup-3, ... one at a time. Bit 0
+ * stands for the plain base name and bit n for the "-n" suffix. A filename such
+ * as "soup-3.json" is recorded both as suffix 3 of "soup" and as the plain name
+ * "soup-3", since either recipe name could have produced it.
+ *
+ * Names are handed out optimistically; callers store the recipe with
+ * RecipeStore.create and ask again if another process got there first.
+ */
+class SlugSuffixRegistry {
+    private static final Map<Path, SlugSuffixRegistry> REGISTRIES = new ConcurrentHashMap<>();
+
+    private final RecipeStore store;
+    private Map<String, BitSet> suffixes;
+
+    private SlugSuffixRegistry(RecipeStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Gets the shared registry for a recipe store; stores at the same location share one registry
+     */
+    static SlugSuffixRegistry forStore(RecipeStore store) {
+        return REGISTRIES.computeIfAbsent(store.getLocation(), location -> new SlugSuffixRegistry(store));
+    }
+
+    /**
+     * Claims the first free filename for a base slug: the slug itself, then slug-2, slug-3, ...
+     */
+    synchronized String allocate(String baseSlug) throws IOException {
+        load();
+        BitSet used = suffixes.computeIfAbsent(baseSlug, slug -> new BitSet());
+        String filename;
+        if (!used.get(0)) {
+            filename = baseSlug + ".json";
+        } else {
+            filename = baseSlug + "-" + used.nextClearBit(2) + ".json";
+        }
+        mark(filename, true);
+        return filename;
+    }
+
+    /**
+     * Records that a filename is free again
+     */
+    synchronized void released(String filename) {
+        if (suffixes != null) {
+            mark(filename, false);
+        }
+    }
+
+    /**
+     * Checks if a filename is one that allocate could hand out for a base slug
+     */
+    static boolean isFilenameFor(String filename, String baseSlug) {
+        String slug = SlugUtils.filenameToSlug(filename);
+        if (slug.equals(baseSlug)) {
+            return true;
+        }
+        return slug.length() > baseSlug.length() + 1 && slug.startsWith(baseSlug)
+            && slug.charAt(baseSlug.length()) == '-' && parseSuffix(slug, baseSlug.length() + 1) >= 2;
+    }
+
+    private void load() throws IOException {
+        if (suffixes != null) {
+            return;
+        }
+        suffixes = new HashMap<>();
+        for (String filename : store.listFilenames()) {
+            mark(filename, true);
+        }
+    }
+
+    private void mark(String filename, boolean used) {
+        String slug = SlugUtils.filenameToSlug(filename);
+        set(slug, 0, used);
+
+        int dash = slug.lastIndexOf('-');
+        int suffix = parseSuffix(slug, dash + 1);
+        if (dash > 0 && suffix >= 2) {
+            set(slug.substring(0, dash), suffix, used);
+        }
+    }
+
+    private void set(String baseSlug, int bit, boolean used) {
+        if (used) {
+            suffixes.computeIfAbsent(baseSlug, slug -> new BitSet()).set(bit);
+            return;
+        }
+
+        BitSet bits = suffixes.get(baseSlug);
+        if (bits != null) {
+            bits.clear(bit);
+            if (bits.isEmpty()) {
+                suffixes.remove(baseSlug);
+            }
+        }
+    }
+
+    /**
+     * Parses a suffix written the way allocate writes one (no sign or leading zeros), or returns -1
+     */
+    private static int parseSuffix(String slug, int start) {
+        int length = slug.length() - start;
+        if (length < 1 || length > 9 || slug.charAt(start) == '0') {
+            return -1;
+        }
+
+        int value = 0;
+        for (int i = start; i < slug.length(); i++) {
+            char c = slug.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
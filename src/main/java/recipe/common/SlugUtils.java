@@ -1,11 +1,18 @@
 package recipe.common;
 
 import java.io.File;
+import java.util.Locale;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 public class SlugUtils {
     private static final Pattern INVALID_CHARS = Pattern.compile("[^a-zA-Z0-9\\s-]");
     private static final Pattern MULTIPLE_SPACES = Pattern.compile("\\s+");
+    private static final int MAX_FAST_SLUG_LENGTH = 4096;
+    // Optional direct-mapped cache of recent slugs, sized with -Drecipe.slugCacheSize (a power of two, off by default)
+    private static final CachedSlug[] SLUG_CACHE = createSlugCache(Integer.getInteger("recipe.slugCacheSize", 0));
+    private static volatile Locale checkedLocale;
+    private static volatile boolean asciiLowercaseStandard;
     
     /**
      * Converts a name to a URL-friendly slug format:
@@ -15,18 +22,96 @@ public class SlugUtils {
      * - Trim whitespace
      */
     public static String toSlug(String name) {
-        if (name == null || name.trim().isEmpty()) {
+        if (name == null) {
+            return "unnamed";
+        }
+        
+        if (SLUG_CACHE != null) {
+            int index = name.hashCode() & (SLUG_CACHE.length - 1);
+            CachedSlug cached = SLUG_CACHE[index];
+            if (cached != null && cached.name.equals(name)) {
+                return cached.slug;
+            }
+            String slug = computeSlug(name);
+            SLUG_CACHE[index] = new CachedSlug(name, slug);
+            return slug;
+        }
+        return computeSlug(name);
+    }
+    
+    /**
+     * Slugs plain ASCII names in a single pass; anything else goes through the regex
+     * implementation, since lowercasing non-ASCII text (or ASCII in a locale such as
+     * Turkish) can produce characters the single pass would not expect
+     */
+    private static String computeSlug(String name) {
+        int length = name.length();
+        if (length > MAX_FAST_SLUG_LENGTH || !asciiLowercaseIsStandard()) {
+            return regexSlug(name);
+        }
+        
+        char[] slug = new char[length];
+        int size = 0;
+        boolean blank = true;
+        boolean pendingSpace = false;
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            if (c >= 0x80) {
+                return regexSlug(name);
+            }
+            if (c > ' ') {
+                blank = false;
+            }
+            
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-') {
+                // Whitespace runs become one hyphen, except at either end
+                if (pendingSpace && size > 0) {
+                    slug[size++] = '-';
+                }
+                pendingSpace = false;
+                slug[size++] = c;
+            } else if (c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r') {
+                pendingSpace = true;
+            }
+            // Any other character is dropped
+        }
+        
+        if (blank) {
+            return "unnamed";
+        }
+        return new String(slug, 0, size);
+    }
+    
+    /**
+     * The original regex-based implementation, used for names the single pass does not handle
+     */
+    private static String regexSlug(String name) {
+        if (name.trim().isEmpty()) {
             return "unnamed";
         }
         
-        return name.trim()
-                .toLowerCase()
-                .replaceAll(INVALID_CHARS.pattern(), "") // Remove special chars
-                .replaceAll(MULTIPLE_SPACES.pattern(), " ") // Normalize spaces
+        String lower = name.trim().toLowerCase();
+        String cleaned = INVALID_CHARS.matcher(lower).replaceAll(""); // Remove special chars
+        return MULTIPLE_SPACES.matcher(cleaned).replaceAll(" ") // Normalize spaces
                 .trim()
                 .replace(" ", "-"); // Replace spaces with hyphens
     }
     
+    /**
+     * Checks that the default locale lowercases ASCII letters to ASCII (it does not in Turkish, for example)
+     */
+    private static boolean asciiLowercaseIsStandard() {
+        Locale locale = Locale.getDefault();
+        if (locale != checkedLocale) {
+            asciiLowercaseStandard = "ABCDEFGHIJKLMNOPQRSTUVWXYZ".toLowerCase(locale).equals("abcdefghijklmnopqrstuvwxyz");
+            checkedLocale = locale;
+        }
+        return asciiLowercaseStandard;
+    }
+    
     /**
      * Generates a unique filename for a recipe, handling collisions
      * by adding numeric suffixes
@@ -59,6 +144,23 @@ public class SlugUtils {
         return filename;
     }
     
+    /**
+     * Generates a unique filename for a recipe using a predicate to check for collisions
+     */
+    public static String getUniqueRecipeFilename(String recipeName, Predicate<String> filenameTaken) {
+        String baseSlug = toSlug(recipeName);
+        String filename = baseSlug + ".json";
+        
+        // Handle collisions with numeric suffixes
+        int counter = 2;
+        while (filenameTaken.test(filename)) {
+            filename = baseSlug + "-" + counter + ".json";
+            counter++;
+        }
+        
+        return filename;
+    }
+    
     /**
      * Extracts the recipe slug from a filename
      */
@@ -96,4 +198,24 @@ public class SlugUtils {
         
         return trimmed.substring(0, 1).toUpperCase() + trimmed.substring(1).toLowerCase();
     }
-}
\ No newline at end of file
+    
+    private static CachedSlug[] createSlugCache(int size) {
+        if (size <= 0) {
+            return null;
+        }
+        return new CachedSlug[Integer.highestOneBit(size)];
+    }
+    
+    /**
+     * A cached name and its slug; final fields make entries safe to share between loader threads
+     */
+    private static final class CachedSlug {
+        private final String name;
+        private final String slug;
+        
+        private CachedSlug(String name, String slug) {
+            this.name = name;
+            this.slug = slug;
+        }
+    }
+}
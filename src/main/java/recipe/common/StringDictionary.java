@@ -0,0 +1,53 @@
+package recipe.common;
+
+/**
+ * Shares one instance of strings that repeat across a catalog.
+ *
+ * Every loaded ingredient would otherwise hold its own copies of "Water",
+ * "water" and "cup". The dictionary is a fixed table in the spirit of the slug
+ * cache in SlugUtils: a string's hash picks a pair of slots, an equal string
+ * in either slot is returned, and otherwise the new string takes the first
+ * slot and the older of the two is dropped. It never grows, so strings that
+ * stop being used only stay until their slots are taken, and common strings
+ * that crowd the same pair are simply shared less. Writes to the table are
+ * unsynchronized; a lost write only costs a missed share.
+ *
+ * Sized with -Drecipe.stringDictionarySize (a power of two of at least 2,
+ * 16384 by default; 0 turns it off).
+ */
+final class StringDictionary {
+    private static final String[] TABLE = createTable(Integer.getInteger("recipe.stringDictionarySize", 1 << 14));
+
+    private StringDictionary() {
+    }
+
+    /**
+     * Gets the shared instance of a string, remembering this one if there is none
+     */
+    static String intern(String value) {
+        if (TABLE == null || value == null) {
+            return value;
+        }
+        int hash = value.hashCode();
+        int index = (hash ^ (hash >>> 16)) & (TABLE.length - 2);
+        String first = TABLE[index];
+        if (first != null && first.equals(value)) {
+            return first;
+        }
+        String second = TABLE[index + 1];
+        if (second != null && second.equals(value)) {
+            return second;
+        }
+        // The newest string goes first, pushing the older one into the second slot
+        TABLE[index + 1] = first;
+        TABLE[index] = value;
+        return value;
+    }
+
+    private static String[] createTable(int size) {
+        if (size <= 0) {
+            return null;
+        }
+        return new String[Math.max(2, Integer.highestOneBit(size))];
+    }
+}
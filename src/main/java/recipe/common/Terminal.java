@@ -5,20 +5,68 @@ import com.googlecode.lanterna.input.KeyStroke;
 import com.googlecode.lanterna.input.KeyType;
 import com.googlecode.lanterna.terminal.*;
 
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class Terminal {
+  // Queue markers; compared by identity, never handed to callers
+  private static final KeyStroke RESIZE_EVENT = new KeyStroke(KeyType.Unknown);
+  private static final KeyStroke FAILURE_EVENT = new KeyStroke(KeyType.Unknown);
+
   private final com.googlecode.lanterna.terminal.Terminal terminal;
-  private TerminalSize terminalSize;
+  private volatile TerminalSize terminalSize;
   private TerminalSize previousSize;
   private final AtomicBoolean sizeChanged = new AtomicBoolean(false);
-  private Thread resizeWatcher;
-  private volatile boolean watchingResize = false;
+  // Resize events are applied once they stop arriving for this long, so a drag re-renders once
+  private static final long RESIZE_DEBOUNCE_MILLIS = 30;
+  private ScheduledExecutorService resizeDebouncer;
+  private ScheduledFuture<?> pendingResize;
+  private TerminalResizeListener resizeListener;
   private volatile boolean inPrivateMode = false;
+  // Key strokes from the input reader thread and resize notices, in arrival order
+  private final BlockingQueue<KeyStroke> events = new LinkedBlockingQueue<>();
+  private Thread inputReader;
+  private volatile IOException inputFailure;
+  // Lanterna writes through this, so a frame can hold back its output and send it in one write
+  private final FrameOutputStream output;
+  private final PrintStream standardOut;
+  private int frameDepth;
+  // What the screen shows (front) and what the open frame draws (back). A frame only sends the
+  // cells that differ; the front is forgotten whenever anything is written outside a frame
+  private ScreenBuffer front;
+  private ScreenBuffer back;
+  private boolean frontKnown;
+  private boolean frameCleared;
+  private int frameCursorX = -1;
+  private int frameCursorY;
+  // Colors used by printAt calls that do not name one, as on the terminal itself
+  private TextColor penForeground = TextColor.ANSI.DEFAULT;
+  private TextColor penBackground = TextColor.ANSI.DEFAULT;
 
   public Terminal() throws IOException {
-    DefaultTerminalFactory factory = new DefaultTerminalFactory();
+    standardOut = System.out;
+    output = new FrameOutputStream(new FileOutputStream(FileDescriptor.out), standardOut.charset());
+    // Console output goes through the same stream, so frames know when the screen was written around them
+    System.setOut(new PrintStream(output, true, standardOut.charset()));
+    DefaultTerminalFactory factory = new DefaultTerminalFactory(output, System.in, Charset.defaultCharset());
     factory.setInitialTerminalSize(new TerminalSize(98, 24));
 
     terminal = factory.createTerminal();
@@ -29,35 +77,82 @@ public class Terminal {
     previousSize = terminalSize;
 
     startResizeWatcher();
+    startInputReader();
   }
 
-  public void startResizeWatcher() {
-    watchingResize = true;
-    resizeWatcher = new Thread(() -> {
-      while (watchingResize) {
+  // Reads keys on one daemon thread so callers can wait on keys and resizes together
+  private void startInputReader() {
+    inputReader = new Thread(() -> {
+      while (true) {
         try {
-          TerminalSize currentSize = terminal.getTerminalSize();
-          if (currentSize != null && !currentSize.equals(terminalSize)) {
-            terminalSize = currentSize;
-            sizeChanged.set(true);
+          KeyStroke key = terminal.readInput();
+          if (key == null) {
+            continue;
+          }
+          events.put(key);
+          if (key.getKeyType() == KeyType.EOF) {
+            return;
           }
-          Thread.sleep(1000);
-        } catch (InterruptedException e) {
-          Thread.currentThread().interrupt();
-          break;
         } catch (IOException e) {
-
+          inputFailure = e;
+          events.add(FAILURE_EVENT);
+          return;
+        } catch (InterruptedException e) {
+          return;
         }
       }
+    }, "terminal-input");
+    inputReader.setDaemon(true);
+    inputReader.start();
+  }
+
+  // Flags a size change and wakes anyone waiting for input, once per change
+  private void signalResize() {
+    if (sizeChanged.compareAndSet(false, true)) {
+      events.add(RESIZE_EVENT);
+    }
+  }
+
+  // Listens for Lanterna's resize notifications (SIGWINCH on Unix) instead of polling the size
+  public synchronized void startResizeWatcher() {
+    if (resizeListener != null) {
+      return;
+    }
+    resizeDebouncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "terminal-resize");
+      thread.setDaemon(true);
+      return thread;
     });
-    resizeWatcher.setDaemon(true);
-    resizeWatcher.start();
+    resizeListener = (source, newSize) -> scheduleResize(newSize);
+    terminal.addResizeListener(resizeListener);
+  }
+
+  public synchronized void stopResizeWatcher() {
+    if (resizeListener == null) {
+      return;
+    }
+    terminal.removeResizeListener(resizeListener);
+    resizeListener = null;
+    resizeDebouncer.shutdownNow();
+    resizeDebouncer = null;
+    pendingResize = null;
+  }
+
+  // Restarts the debounce delay on every event; only the last size of a burst is applied
+  private synchronized void scheduleResize(TerminalSize newSize) {
+    if (resizeDebouncer == null) {
+      return;
+    }
+    if (pendingResize != null) {
+      pendingResize.cancel(false);
+    }
+    pendingResize = resizeDebouncer.schedule(() -> applyResize(newSize), RESIZE_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
   }
 
-  public void stopResizeWatcher() {
-    watchingResize = false;
-    if (resizeWatcher != null) {
-      resizeWatcher.interrupt();
+  private void applyResize(TerminalSize newSize) {
+    if (newSize != null && !newSize.equals(terminalSize)) {
+      terminalSize = newSize;
+      signalResize();
     }
   }
 
@@ -77,13 +172,140 @@ public class Terminal {
     return terminalSize != null ? terminalSize.getRows() : 24;
   }
 
-  public void clear() throws IOException {
+  // Starts a frame: drawing goes to the back buffer until the matching commitFrame(). Frames may
+  // nest; only the outermost commit sends the frame, as a single write
+  public synchronized void beginFrame() {
+    if (frameDepth++ > 0) {
+      return;
+    }
+    output.hold();
+
+    int width = getWidth();
+    int height = getHeight();
+    if (output.takeUnframedWrites() || front == null || !front.hasSize(width, height)) {
+      frontKnown = false;
+    }
+    if (back == null || !back.hasSize(width, height)) {
+      back = new ScreenBuffer(width, height);
+    }
+    if (frontKnown) {
+      back.copyFrom(front);
+    } else {
+      back.fill(ScreenBuffer.UNKNOWN, null, null);
+    }
+    frameCleared = false;
+    frameCursorX = -1;
+  }
+
+  // Ends a frame, sending the cells that changed since the last frame in one write
+  public synchronized void commitFrame() throws IOException {
+    if (frameDepth == 0) {
+      throw new IllegalStateException("commitFrame() without beginFrame()");
+    }
+    if (--frameDepth == 0) {
+      try {
+        drawFrame();
+        terminal.flush();
+      } finally {
+        output.release();
+      }
+    }
+  }
+
+  // Diffs the back buffer against the screen. A frame that cleared a screen we cannot vouch for
+  // (first frame, after a resize or console output), or that changes more cells than it draws,
+  // starts from a real clear instead
+  private void drawFrame() throws IOException {
+    if (frameCleared && (!frontKnown || back.drawnCells() < back.changedCells(front))) {
+      terminal.resetColorAndSGR();
+      terminal.clearScreen();
+      if (front == null || !front.hasSize(back.width, back.height)) {
+        front = new ScreenBuffer(back.width, back.height);
+      }
+      front.fill(' ', TextColor.ANSI.DEFAULT, TextColor.ANSI.DEFAULT);
+      frontKnown = true;
+    }
+
+    TextColor foreground = null;
+    TextColor background = null;
+    int cursorX = -1;
+    int cursorY = -1;
+    for (int y = 0; y < back.height; y++) {
+      for (int x = 0; x < back.width; x++) {
+        int i = y * back.width + x;
+        int ch = back.chars[i];
+        if (ch == ScreenBuffer.UNKNOWN || ch == ScreenBuffer.CONTINUATION) {
+          continue;
+        }
+        if (frontKnown && back.sameCell(front, i)) {
+          continue;
+        }
+
+        if (x != cursorX || y != cursorY) {
+          terminal.setCursorPosition(x, y);
+        }
+        if (!back.foregrounds[i].equals(foreground)) {
+          foreground = back.foregrounds[i];
+          terminal.setForegroundColor(foreground);
+        }
+        if (!back.backgrounds[i].equals(background)) {
+          background = back.backgrounds[i];
+          terminal.setBackgroundColor(background);
+        }
+        if (Character.isBmpCodePoint(ch)) {
+          terminal.putCharacter((char) ch);
+        } else {
+          terminal.putString(new String(Character.toChars(ch)));
+        }
+        cursorX = x + ScreenBuffer.columns(ch);
+        cursorY = y;
+      }
+    }
+
+    // Leave the terminal's colors and cursor where the frame's own drawing would have left them
+    if (!penForeground.equals(foreground)) {
+      terminal.setForegroundColor(penForeground);
+    }
+    if (!penBackground.equals(background)) {
+      terminal.setBackgroundColor(penBackground);
+    }
+    if (frameCursorX >= 0 && frameCursorX < back.width) {
+      terminal.setCursorPosition(frameCursorX, frameCursorY);
+    }
+
+    if (frontKnown) {
+      ScreenBuffer shown = front;
+      front = back;
+      back = shown;
+    }
+  }
+
+  // Flushes straight away unless a frame is open, in which case its commit flushes
+  private synchronized void flushUnlessFraming() throws IOException {
+    if (frameDepth == 0) {
+      terminal.flush();
+    }
+  }
+
+  public synchronized void clear() throws IOException {
+    if (frameDepth > 0) {
+      back.fill(' ', TextColor.ANSI.DEFAULT, TextColor.ANSI.DEFAULT);
+      frameCleared = true;
+      frameCursorX = 0;
+      frameCursorY = 0;
+      return;
+    }
     terminal.clearScreen();
     terminal.setCursorPosition(0, 0);
-    terminal.flush();
+    flushUnlessFraming();
   }
 
-  public void setCursorPosition(int x, int y) throws IOException {
+  public synchronized void setCursorPosition(int x, int y) throws IOException {
+    if (frameDepth > 0) {
+      frameCursorX = x;
+      frameCursorY = y;
+      return;
+    }
     terminal.setCursorPosition(x, y);
   }
 
@@ -92,20 +314,20 @@ public class Terminal {
   }
 
   public void printAt(int x, int y, String text) throws IOException {
-    if (x < 0 || y < 0 || x >= getWidth() || y >= getHeight()) {
-      return;
-    }
+    draw(x, y, text, null, null);
+  }
 
-    if (x + text.length() > getWidth()) {
-      text = text.substring(0, Math.max(0, getWidth() - x));
-    }
+  public void printAt(int x, int y, String text, TextColor foreground) throws IOException {
+    draw(x, y, text, foreground, null);
+  }
 
-    terminal.setCursorPosition(x, y);
-    terminal.putString(text);
-    terminal.flush();
+  public void printAt(int x, int y, String text, TextColor foreground, TextColor background) throws IOException {
+    draw(x, y, text, foreground, background);
   }
 
-  public void printAt(int x, int y, String text, TextColor foreground) throws IOException {
+  // Null colors keep the current ones
+  private synchronized void draw(int x, int y, String text, TextColor foreground, TextColor background)
+      throws IOException {
     if (x < 0 || y < 0 || x >= getWidth() || y >= getHeight()) {
       return;
     }
@@ -114,39 +336,92 @@ public class Terminal {
       text = text.substring(0, Math.max(0, getWidth() - x));
     }
 
+    if (foreground != null) {
+      penForeground = foreground;
+    }
+    if (background != null) {
+      penBackground = background;
+    }
+    if (frameDepth > 0) {
+      // The cursor ends up after the text, as it would have when drawn directly
+      frameCursorX = back.put(x, y, text, penForeground, penBackground);
+      frameCursorY = y;
+      return;
+    }
+
     terminal.setCursorPosition(x, y);
-    terminal.setForegroundColor(foreground);
+    if (foreground != null) {
+      terminal.setForegroundColor(foreground);
+    }
+    if (background != null) {
+      terminal.setBackgroundColor(background);
+    }
     terminal.putString(text);
-    terminal.flush();
+    flushUnlessFraming();
   }
 
-  public void printAt(int x, int y, String text, TextColor foreground, TextColor background) throws IOException {
-    if (x < 0 || y < 0 || x >= getWidth() || y >= getHeight()) {
+  public synchronized void resetColors() throws IOException {
+    penForeground = TextColor.ANSI.DEFAULT;
+    penBackground = TextColor.ANSI.DEFAULT;
+    if (frameDepth > 0) {
       return;
     }
+    terminal.resetColorAndSGR();
+    flushUnlessFraming();
+  }
 
-    if (x + text.length() > getWidth()) {
-      text = text.substring(0, Math.max(0, getWidth() - x));
-    }
-
-    terminal.setCursorPosition(x, y);
-    terminal.setForegroundColor(foreground);
-    terminal.setBackgroundColor(background);
-    terminal.putString(text);
-    terminal.flush();
+  // Queues console text in a color given as an SGR sequence (such as "\033[31m"). It is sent in
+  // one write with everything queued after it, ahead of any other output and before input is read
+  public void writeConsole(byte[] color, CharSequence text) {
+    output.appendText(color, text);
   }
 
-  public void resetColors() throws IOException {
-    terminal.resetColorAndSGR();
-    terminal.flush();
+  // Queues console text in an RGB color, whose sequence is written into the buffer without being built apart
+  public void writeConsole(TextColor.RGB color, CharSequence text) {
+    output.appendText(color, text);
   }
 
-  public KeyStroke readInputWithTimeout() throws IOException {
-    return terminal.pollInput();
+  // Sends queued console text now
+  public void flushConsole() throws IOException {
+    output.flush();
   }
 
+  // Blocks until the next key; resizes are left to hasTerminalSizeChanged()
   public KeyStroke readInput() throws IOException {
-    return terminal.readInput();
+    flushConsole();
+    KeyStroke event;
+    do {
+      event = takeEvent();
+    } while (event == RESIZE_EVENT);
+    return event;
+  }
+
+  // Blocks until the next key or terminal resize, returning null for a resize
+  public KeyStroke readInputOrResize() throws IOException {
+    flushConsole();
+    KeyStroke event = takeEvent();
+    return event == RESIZE_EVENT ? null : event;
+  }
+
+  private KeyStroke takeEvent() throws IOException {
+    try {
+      return checkEvent(events.take());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for input");
+    }
+  }
+
+  // End of input and read failures stay queued so every later read sees them too
+  private KeyStroke checkEvent(KeyStroke event) throws IOException {
+    if (event == FAILURE_EVENT) {
+      events.add(FAILURE_EVENT);
+      throw inputFailure;
+    }
+    if (event.getKeyType() == KeyType.EOF) {
+      events.add(event);
+    }
+    return event;
   }
 
   public void forceReset() throws IOException {
@@ -162,10 +437,280 @@ public class Terminal {
 
   public void close() throws IOException {
     stopResizeWatcher();
+    System.setOut(standardOut);
     if (inPrivateMode) {
       terminal.exitPrivateMode();
       inPrivateMode = false;
     }
     terminal.close();
   }
+
+  // Writes straight through (as System.out did), except while held for a frame, when output
+  // collects in memory until release() sends it in one write. Console text is encoded straight
+  // into the same buffer and goes out with the next write, flush or frame
+  private static final class FrameOutputStream extends OutputStream {
+    static final byte[] RESET = {0x1b, '[', '0', 'm'};
+    private static final byte[] RGB_PREFIX = {0x1b, '[', '3', '8', ';', '2', ';'};
+    private static final byte[] SEPARATOR = {';'};
+    private static final byte[] SGR_END = {'m'};
+
+    private final OutputStream out;
+    private final CharsetEncoder encoder;
+    private byte[] buffer = new byte[8192];
+    private int count;
+    private boolean held;
+    private boolean unframedWrites;
+    // Color of the last console fragment (a sequence, or an RGB color) and where it ends, while
+    // nothing has been written after it
+    private byte[] textColor;
+    private TextColor.RGB textRgb;
+    private int textEnd = -1;
+
+    private FrameOutputStream(OutputStream out, Charset charset) {
+      this.out = out;
+      this.encoder = charset.newEncoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    synchronized void hold() {
+      held = true;
+    }
+
+    synchronized void release() throws IOException {
+      held = false;
+      flushBuffer();
+    }
+
+    // Reports whether anything was written outside a frame since the last call
+    synchronized boolean takeUnframedWrites() {
+      boolean wrote = unframedWrites;
+      unframedWrites = false;
+      return wrote;
+    }
+
+    // Queues console text in a color (an SGR sequence), ending in a reset. A fragment in the same
+    // color as the one just before it continues that run instead of resetting and setting it again
+    synchronized void appendText(byte[] color, CharSequence fragment) {
+      if (count == textEnd && Arrays.equals(color, textColor)) {
+        count -= RESET.length;
+      } else if (count != textEnd || !Arrays.equals(color, RESET)) {
+        // Straight after a queued run the colors are already reset
+        append(color, 0, color.length);
+      }
+      encode(fragment);
+      append(RESET, 0, RESET.length);
+      textColor = color;
+      textRgb = null;
+      textEnd = count;
+      unframedWrites = true;
+    }
+
+    // Queues console text in an RGB color as appendText does, writing ESC [ 38;2;r;g;b m into the buffer
+    synchronized void appendText(TextColor.RGB color, CharSequence fragment) {
+      if (count == textEnd && color.equals(textRgb)) {
+        count -= RESET.length;
+      } else {
+        append(RGB_PREFIX, 0, RGB_PREFIX.length);
+        appendNumber(color.getRed());
+        append(SEPARATOR, 0, 1);
+        appendNumber(color.getGreen());
+        append(SEPARATOR, 0, 1);
+        appendNumber(color.getBlue());
+        append(SGR_END, 0, 1);
+      }
+      encode(fragment);
+      append(RESET, 0, RESET.length);
+      textColor = null;
+      textRgb = color;
+      textEnd = count;
+      unframedWrites = true;
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+      append(bytes, offset, length);
+      textEnd = -1;
+      if (!held) {
+        unframedWrites = true;
+        flushBuffer();
+      }
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+      if (!held) {
+        flushBuffer();
+      }
+    }
+
+    // Encodes text into the buffer, growing it as needed
+    private void encode(CharSequence text) {
+      CharBuffer chars = CharBuffer.wrap(text);
+      encoder.reset();
+      while (true) {
+        ByteBuffer bytes = ByteBuffer.wrap(buffer, count, buffer.length - count);
+        CoderResult result = encoder.encode(chars, bytes, true);
+        if (!result.isOverflow()) {
+          result = encoder.flush(bytes);
+        }
+        count = bytes.position();
+        if (!result.isOverflow()) {
+          return;
+        }
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+      }
+    }
+
+    // Appends a color component (0 to 255) in decimal
+    private void appendNumber(int value) {
+      if (count + 3 > buffer.length) {
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+      }
+      if (value >= 100) {
+        buffer[count++] = (byte) ('0' + value / 100);
+      }
+      if (value >= 10) {
+        buffer[count++] = (byte) ('0' + value / 10 % 10);
+      }
+      buffer[count++] = (byte) ('0' + value % 10);
+    }
+
+    private void append(byte[] bytes, int offset, int length) {
+      if (count + length > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, count + length));
+      }
+      System.arraycopy(bytes, offset, buffer, count, length);
+      count += length;
+    }
+
+    private void flushBuffer() throws IOException {
+      if (count > 0) {
+        out.write(buffer, 0, count);
+        count = 0;
+      }
+      textEnd = -1;
+      out.flush();
+    }
+
+    // Standard output is shared with System.out, so closing only sends what is left
+    @Override
+    public synchronized void close() throws IOException {
+      release();
+    }
+  }
+
+  // One cell per column and row: a code point with its colors. A double-width character fills
+  // its own cell and a CONTINUATION cell to its right
+  private static final class ScreenBuffer {
+    static final int UNKNOWN = -1;
+    static final int CONTINUATION = -2;
+
+    final int width;
+    final int height;
+    final int[] chars;
+    final TextColor[] foregrounds;
+    final TextColor[] backgrounds;
+
+    ScreenBuffer(int width, int height) {
+      this.width = width;
+      this.height = height;
+      chars = new int[width * height];
+      foregrounds = new TextColor[width * height];
+      backgrounds = new TextColor[width * height];
+    }
+
+    boolean hasSize(int width, int height) {
+      return this.width == width && this.height == height;
+    }
+
+    void fill(int ch, TextColor foreground, TextColor background) {
+      Arrays.fill(chars, ch);
+      Arrays.fill(foregrounds, foreground);
+      Arrays.fill(backgrounds, background);
+    }
+
+    // Cells that show something besides a default blank
+    int drawnCells() {
+      int drawn = 0;
+      for (int i = 0; i < chars.length; i++) {
+        if (chars[i] != ' ' || backgrounds[i] != TextColor.ANSI.DEFAULT) {
+          drawn++;
+        }
+      }
+      return drawn;
+    }
+
+    int changedCells(ScreenBuffer shown) {
+      int changed = 0;
+      for (int i = 0; i < chars.length; i++) {
+        if (!sameCell(shown, i)) {
+          changed++;
+        }
+      }
+      return changed;
+    }
+
+    boolean sameCell(ScreenBuffer shown, int i) {
+      return chars[i] == shown.chars[i] && foregrounds[i].equals(shown.foregrounds[i])
+          && backgrounds[i].equals(shown.backgrounds[i]);
+    }
+
+    void copyFrom(ScreenBuffer other) {
+      System.arraycopy(other.chars, 0, chars, 0, chars.length);
+      System.arraycopy(other.foregrounds, 0, foregrounds, 0, foregrounds.length);
+      System.arraycopy(other.backgrounds, 0, backgrounds, 0, backgrounds.length);
+    }
+
+    // Writes text along one row, clipped at the right edge; returns the column after it
+    int put(int x, int y, String text, TextColor foreground, TextColor background) {
+      int row = y * width;
+      int i = 0;
+      while (i < text.length() && x < width) {
+        int ch = text.codePointAt(i);
+        int columns = columns(ch);
+        if (x + columns > width) {
+          break;
+        }
+        for (int column = x; column < x + columns; column++) {
+          splitWide(row, column);
+        }
+        set(row + x, ch, foreground, background);
+        if (columns == 2) {
+          set(row + x + 1, CONTINUATION, foreground, background);
+        }
+        x += columns;
+        i += Character.charCount(ch);
+      }
+      return x;
+    }
+
+    // Blanks the other half of a double-width character that is about to be partly overwritten
+    private void splitWide(int row, int x) {
+      if (chars[row + x] == CONTINUATION && x > 0) {
+        chars[row + x - 1] = ' ';
+      }
+      if (x + 1 < width && chars[row + x + 1] == CONTINUATION) {
+        chars[row + x + 1] = ' ';
+      }
+    }
+
+    private void set(int i, int ch, TextColor foreground, TextColor background) {
+      chars[i] = ch;
+      foregrounds[i] = foreground;
+      backgrounds[i] = background;
+    }
+
+    static int columns(int ch) {
+      if (!Character.isBmpCodePoint(ch)) {
+        return 2;
+      }
+      return TerminalTextUtils.isCharDoubleWidth((char) ch) ? 2 : 1;
+    }
+  }
 }
@@ -0,0 +1,125 @@
+package recipe.common;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Substring index over a fixed list of lowercased keys.
+ *
+ * Every three-character window of every key is mapped to the positions of the
+ * keys containing it. A search narrows candidates with the rarest trigram of
+ * the search term and then verifies each candidate with String.contains, so the
+ * results are exactly those of a linear contains scan, in list order.
+ */
+public class TrigramIndex {
+    private static final int[] NO_MATCHES = new int[0];
+
+    private final String[] keys;
+    private final Map<Long, int[]> postings;
+
+    /**
+     * Builds an index over keys that are already lowercased; null keys never match
+     */
+    public TrigramIndex(List<String> keys) {
+        this.keys = keys.toArray(new String[0]);
+        this.postings = buildPostings(this.keys);
+    }
+
+    /**
+     * Gets the number of indexed keys
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Finds the positions of all keys containing the lowercased search term, in ascending order
+     */
+    public int[] search(String lowerSearchTerm) {
+        if (lowerSearchTerm.length() < 3) {
+            return scan(lowerSearchTerm);
+        }
+
+        int[] candidates = null;
+        for (int i = 0; i + 3 <= lowerSearchTerm.length(); i++) {
+            int[] posting = postings.get(trigram(lowerSearchTerm, i));
+            if (posting == null) {
+                return NO_MATCHES;
+            }
+            if (candidates == null || posting.length < candidates.length) {
+                candidates = posting;
+            }
+        }
+
+        int[] matches = new int[candidates.length];
+        int count = 0;
+        for (int candidate : candidates) {
+            if (keys[candidate].contains(lowerSearchTerm)) {
+                matches[count++] = candidate;
+            }
+        }
+        return trim(matches, count);
+    }
+
+    /**
+     * Falls back to a linear scan for terms too short to have a trigram
+     */
+    private int[] scan(String lowerSearchTerm) {
+        int[] matches = new int[keys.length];
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && keys[i].contains(lowerSearchTerm)) {
+                matches[count++] = i;
+            }
+        }
+        return trim(matches, count);
+    }
+
+    private static Map<Long, int[]> buildPostings(String[] keys) {
+        Map<Long, List<Integer>> lists = new HashMap<>();
+        for (int id = 0; id < keys.length; id++) {
+            String key = keys[id];
+            if (key == null) {
+                continue;
+            }
+            for (int i = 0; i + 3 <= key.length(); i++) {
+                List<Integer> ids = lists.computeIfAbsent(trigram(key, i), t -> new ArrayList<>());
+                // Keys are added in order, so a repeated trigram only needs checking against the last id
+                if (ids.isEmpty() || ids.get(ids.size() - 1) != id) {
+                    ids.add(id);
+                }
+            }
+        }
+
+        Map<Long, int[]> postings = new HashMap<>(lists.size() * 2);
+        for (Map.Entry<Long, List<Integer>> entry : lists.entrySet()) {
+            List<Integer> ids = entry.getValue();
+            int[] posting = new int[ids.size()];
+            for (int i = 0; i < posting.length; i++) {
+                posting[i] = ids.get(i);
+            }
+            postings.put(entry.getKey(), posting);
+        }
+        return postings;
+    }
+
+    /**
+     * Packs the three characters of text starting at start into one key
+     */
+    static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32)
+            | ((long) text.charAt(start + 1) << 16)
+            | text.charAt(start + 2);
+    }
+
+    private static int[] trim(int[] matches, int count) {
+        if (count == matches.length) {
+            return matches;
+        }
+        int[] trimmed = new int[count];
+        System.arraycopy(matches, 0, trimmed, 0, count);
+        return trimmed;
+    }
+}
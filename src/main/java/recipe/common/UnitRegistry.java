@@ -0,0 +1,268 @@
+package recipe.common;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Known measuring units, interned to small integer IDs.
+ *
+ * A unit as written in a recipe ("Tablespoons", "tbsp.", "cups") is parsed once
+ * into the ID of its canonical unit; known spellings are remembered (up to a
+ * fixed number) so later lookups of the same text are a single map hit. Conversions between all known units are
+ * worked out up front into a matrix, so converting an amount or picking the unit
+ * that reads best is only table lookups and multiplication.
+ *
+ * Units are grouped into volume, mass and count. Free-text units ("cloves",
+ * "large") are not known and get UNKNOWN; they are never converted.
+ */
+public final class UnitRegistry {
+    /**
+     * ID of any unit the registry does not know
+     */
+    public static final int UNKNOWN = -1;
+
+    public enum Dimension {
+        VOLUME, MASS, COUNT
+    }
+
+    // Measuring systems; a unit is only ever normalized into units of its own system
+    private static final int US = 0;
+    private static final int METRIC = 1;
+
+    private static final double ML_PER_TSP = 4.92892159375;
+    private static final double G_PER_OZ = 28.349523125;
+
+    // Slack for amounts that land a rounding error short of a whole unit
+    private static final double EPSILON = 1e-9;
+
+    // Fractional parts an amount may have and still read well in a unit: whole, ¼, ⅓, ½, ⅔ and ¾
+    private static final double[] KITCHEN_FRACTIONS = {0, 0.25, 1.0 / 3, 0.5, 2.0 / 3, 0.75, 1};
+
+    // Most spellings remembered by idOf; anything past this is parsed on every lookup
+    private static final int MAX_CACHED_SPELLINGS = 1024;
+
+    private static final List<String> SINGULAR_NAMES = new ArrayList<>();
+    private static final List<String> PLURAL_NAMES = new ArrayList<>();
+    private static final List<Dimension> DIMENSIONS = new ArrayList<>();
+    private static final List<Integer> SYSTEMS = new ArrayList<>();
+    // Size in the base unit of the dimension: millilitres, grams or items
+    private static final List<Double> SIZES = new ArrayList<>();
+    // Smallest amount a unit is normalized into, 0 for units nothing is normalized into
+    private static final List<Double> MINIMUMS = new ArrayList<>();
+    private static final Map<String, Integer> ALIASES = new HashMap<>();
+
+    static {
+        unit("tsp", "tsp", Dimension.VOLUME, US, ML_PER_TSP, 1,
+            "tsp", "tsps", "teaspoon", "teaspoons", "t");
+        unit("tbsp", "tbsp", Dimension.VOLUME, US, 3 * ML_PER_TSP, 1,
+            "tbsp", "tbsps", "tbs", "tbl", "tablespoon", "tablespoons", "T");
+        unit("fl oz", "fl oz", Dimension.VOLUME, US, 6 * ML_PER_TSP, 0,
+            "fl oz", "floz", "fluid ounce", "fluid ounces");
+        unit("cup", "cups", Dimension.VOLUME, US, 48 * ML_PER_TSP, 0.25,
+            "cup", "cups", "c");
+        unit("pint", "pints", Dimension.VOLUME, US, 96 * ML_PER_TSP, 0,
+            "pint", "pints", "pt", "pts");
+        unit("quart", "quarts", Dimension.VOLUME, US, 192 * ML_PER_TSP, 1,
+            "quart", "quarts", "qt", "qts");
+        unit("gallon", "gallons", Dimension.VOLUME, US, 768 * ML_PER_TSP, 1,
+            "gallon", "gallons", "gal", "gals");
+        unit("ml", "ml", Dimension.VOLUME, METRIC, 1, 1,
+            "ml", "millilitre", "millilitres", "milliliter", "milliliters");
+        unit("l", "l", Dimension.VOLUME, METRIC, 1000, 1,
+            "l", "litre", "litres", "liter", "liters");
+        unit("oz", "oz", Dimension.MASS, US, G_PER_OZ, 1,
+            "oz", "ounce", "ounces");
+        unit("lb", "lbs", Dimension.MASS, US, 16 * G_PER_OZ, 1,
+            "lb", "lbs", "pound", "pounds");
+        unit("g", "g", Dimension.MASS, METRIC, 1, 1,
+            "g", "gram", "grams", "gramme", "grammes");
+        unit("kg", "kg", Dimension.MASS, METRIC, 1000, 1,
+            "kg", "kilogram", "kilograms", "kilo", "kilos");
+        unit("each", "each", Dimension.COUNT, US, 1, 1,
+            "each", "ea", "piece", "pieces", "pc", "pcs", "whole");
+        unit("dozen", "dozen", Dimension.COUNT, US, 12, 0,
+            "dozen", "doz");
+    }
+
+    private static final int UNIT_COUNT = SIZES.size();
+    private static final double[] MINIMUM_AMOUNTS = MINIMUMS.stream().mapToDouble(Double::doubleValue).toArray();
+    // FACTORS[from * UNIT_COUNT + to] converts an amount in from into to; NaN across dimensions
+    private static final double[] FACTORS = buildFactors();
+    // Units a unit may be normalized into, smallest first; empty when it is never normalized
+    private static final int[][] LADDERS = buildLadders();
+
+    // Spellings of known units looked up so far; free text is never kept, so this stays small
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+
+    private UnitRegistry() {
+    }
+
+    private static void unit(String singular, String plural, Dimension dimension, int system,
+                             double size, double minimum, String... aliases) {
+        int id = SIZES.size();
+        SINGULAR_NAMES.add(singular);
+        PLURAL_NAMES.add(plural);
+        DIMENSIONS.add(dimension);
+        SYSTEMS.add(system);
+        SIZES.add(size);
+        MINIMUMS.add(minimum);
+        for (String alias : aliases) {
+            // "t" and "T" are told apart by case; every other alias is matched ignoring case
+            ALIASES.put(alias.length() == 1 ? alias : alias.toLowerCase(Locale.ROOT), id);
+        }
+    }
+
+    private static double[] buildFactors() {
+        double[] factors = new double[UNIT_COUNT * UNIT_COUNT];
+        for (int from = 0; from < UNIT_COUNT; from++) {
+            for (int to = 0; to < UNIT_COUNT; to++) {
+                if (DIMENSIONS.get(from) != DIMENSIONS.get(to)) {
+                    factors[from * UNIT_COUNT + to] = Double.NaN;
+                    continue;
+                }
+                double factor = SIZES.get(from) / SIZES.get(to);
+                // Within a system sizes are whole multiples of each other; keep those exact
+                double whole = Math.rint(factor);
+                double wholeInverse = Math.rint(1 / factor);
+                if (whole >= 1 && Math.abs(factor - whole) < EPSILON * whole) {
+                    factor = whole;
+                } else if (wholeInverse >= 1 && Math.abs(1 / factor - wholeInverse) < EPSILON * wholeInverse) {
+                    factor = 1 / wholeInverse;
+                }
+                factors[from * UNIT_COUNT + to] = factor;
+            }
+        }
+        return factors;
+    }
+
+    private static int[][] buildLadders() {
+        int[][] ladders = new int[UNIT_COUNT][];
+        for (int id = 0; id < UNIT_COUNT; id++) {
+            List<Integer> ladder = new ArrayList<>();
+            for (int other = 0; other < UNIT_COUNT; other++) {
+                if (DIMENSIONS.get(other) == DIMENSIONS.get(id) && SYSTEMS.get(other).equals(SYSTEMS.get(id))
+                    && MINIMUMS.get(other) > 0) {
+                    ladder.add(other);
+                }
+            }
+            ladder.sort((a, b) -> Double.compare(SIZES.get(a), SIZES.get(b)));
+            ladders[id] = ladder.size() > 1 ? ladder.stream().mapToInt(Integer::intValue).toArray() : new int[0];
+        }
+        return ladders;
+    }
+
+    /**
+     * Gets the ID of a unit as written in a recipe, or UNKNOWN
+     */
+    public static int idOf(String unit) {
+        if (unit == null) {
+            return UNKNOWN;
+        }
+        Integer id = IDS.get(unit);
+        if (id == null) {
+            id = parse(unit);
+            if (id != UNKNOWN && IDS.size() < MAX_CACHED_SPELLINGS) {
+                IDS.put(unit, id);
+            }
+        }
+        return id;
+    }
+
+    private static int parse(String unit) {
+        String text = unit.trim().replaceAll("\\s+", " ");
+        if (text.endsWith(".")) {
+            text = text.substring(0, text.length() - 1);
+        }
+        Integer id = text.length() == 1 ? ALIASES.get(text) : null;
+        if (id == null) {
+            id = ALIASES.get(text.toLowerCase(Locale.ROOT));
+        }
+        return id != null ? id : UNKNOWN;
+    }
+
+    public static int getUnitCount() {
+        return UNIT_COUNT;
+    }
+
+    /**
+     * Gets the canonical name of a unit, in the singular ("cup")
+     */
+    public static String getName(int id) {
+        return SINGULAR_NAMES.get(id);
+    }
+
+    /**
+     * Gets the canonical name of a unit for an amount: singular for exactly one, plural otherwise
+     */
+    public static String getName(int id, double amount) {
+        return amount == 1 ? SINGULAR_NAMES.get(id) : PLURAL_NAMES.get(id);
+    }
+
+    public static Dimension getDimension(int id) {
+        return DIMENSIONS.get(id);
+    }
+
+    /**
+     * Tells whether an amount in one unit can be converted into the other
+     */
+    public static boolean isConvertible(int from, int to) {
+        return from != UNKNOWN && to != UNKNOWN && !Double.isNaN(FACTORS[from * UNIT_COUNT + to]);
+    }
+
+    /**
+     * Converts an amount from one unit into another of the same dimension
+     */
+    public static double convert(double amount, int from, int to) {
+        if (!isConvertible(from, to)) {
+            throw new IllegalArgumentException("Cannot convert " + name(from) + " to " + name(to));
+        }
+        return amount * FACTORS[from * UNIT_COUNT + to];
+    }
+
+    /**
+     * Picks the unit an amount reads best in: the largest unit of the same
+     * system in which it comes to a whole number or a common kitchen fraction
+     * (¼, ⅓, ½, ⅔ or ¾) of at least one (at least a quarter for cups). So 48 tsp
+     * becomes 1 cup and 0.125 cup becomes 2 tbsp, but 9 tbsp stays 9 tbsp rather
+     * than 0.5625 cups. Returns the unit itself when no unit gives such an amount,
+     * when it is unknown or has nothing to move to, or the amount is not positive.
+     */
+    public static int bestUnit(double amount, int unit) {
+        if (unit == UNKNOWN || !(amount > 0) || Double.isInfinite(amount)) {
+            return unit;
+        }
+        int[] ladder = LADDERS[unit];
+        if (ladder.length == 0) {
+            return unit;
+        }
+        int row = unit * UNIT_COUNT;
+        for (int i = ladder.length - 1; i >= 0; i--) {
+            int candidate = ladder[i];
+            double converted = amount * FACTORS[row + candidate];
+            if (converted >= MINIMUM_AMOUNTS[candidate] * (1 - EPSILON) && isKitchenAmount(converted)) {
+                return candidate;
+            }
+        }
+        return unit;
+    }
+
+    // Tells whether an amount is a whole number plus one of the kitchen fractions, give or take a rounding error
+    private static boolean isKitchenAmount(double amount) {
+        double fraction = amount - Math.floor(amount);
+        double slack = EPSILON * Math.max(1, amount);
+        for (double kitchenFraction : KITCHEN_FRACTIONS) {
+            if (Math.abs(fraction - kitchenFraction) <= slack) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String name(int id) {
+        return id == UNKNOWN ? "an unknown unit" : SINGULAR_NAMES.get(id);
+    }
+}
@@ -0,0 +1,297 @@
+package recipe.common;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recipe store wrapper that accepts writes and deletes immediately and stores
+ * them on a background thread.
+ *
+ * Changes wait briefly (-Drecipe.writeBehindDelayMs, default 50) so a burst
+ * becomes one batch; repeated changes to the same filename within a batch are
+ * coalesced into the latest one. A recipe is queued as its JSON, taken when
+ * it is written, so later changes to the caller's Recipe object do not leak
+ * into what gets stored. Each batch goes to the wrapped store with writeBatch,
+ * which shares what syncs it can across the batch. Reads, listings and
+ * existence checks see pending changes (reads get a fresh copy), so callers
+ * cannot tell a change has not reached disk yet. flush() waits for everything
+ * accepted so far; a failed batch is kept and retried.
+ *
+ * Creating recipes relies on this process being the only writer of the store,
+ * since a name is checked against pending changes rather than claimed on disk.
+ */
+class WriteBehindStore implements RecipeStore {
+    private static final Map<Path, WriteBehindStore> STORES = new ConcurrentHashMap<>();
+    private static final long BATCH_DELAY_MILLIS = Long.getLong("recipe.writeBehindDelayMs", 50);
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    private final RecipeStore store;
+    private final Object lock = new Object();
+    // Filename to the recipe's JSON, or to null for a delete
+    private Map<String, byte[]> pending = new LinkedHashMap<>();
+    private Map<String, byte[]> inFlight = new LinkedHashMap<>();
+    private final Map<String, Long> pendingVersions = new HashMap<>();
+    private long accepted;
+    private long written;
+    private long failures;
+    private Exception lastFailure;
+    private boolean flushRequested;
+
+    private WriteBehindStore(RecipeStore store) {
+        this.store = store;
+        Thread writer = new Thread(this::writeLoop, "recipe-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Gets the shared write-behind queue for a store; stores at the same location share one queue
+     */
+    static WriteBehindStore forStore(RecipeStore store) {
+        return STORES.computeIfAbsent(store.getLocation(), location -> new WriteBehindStore(store));
+    }
+
+    /**
+     * Flushes every write-behind queue in the process
+     */
+    static void flushAll() throws IOException {
+        for (WriteBehindStore store : STORES.values()) {
+            store.flush();
+        }
+    }
+
+    @Override
+    public Path getLocation() {
+        return store.getLocation();
+    }
+
+    @Override
+    public List<String> listFilenames() throws IOException {
+        TreeSet<String> filenames = new TreeSet<>(store.listFilenames());
+        synchronized (lock) {
+            applyPending(filenames, inFlight);
+            applyPending(filenames, pending);
+        }
+        return new ArrayList<>(filenames);
+    }
+
+    @Override
+    public boolean exists(String filename) {
+        synchronized (lock) {
+            if (pending.containsKey(filename)) {
+                return pending.get(filename) != null;
+            }
+            if (inFlight.containsKey(filename)) {
+                return inFlight.get(filename) != null;
+            }
+        }
+        return store.exists(filename);
+    }
+
+    @Override
+    public Recipe read(String filename) throws IOException {
+        synchronized (lock) {
+            Map<String, byte[]> changes = pending.containsKey(filename) ? pending
+                : inFlight.containsKey(filename) ? inFlight : null;
+            if (changes != null) {
+                byte[] json = changes.get(filename);
+                if (json == null) {
+                    throw new IOException("Recipe not found: " + filename);
+                }
+                return Recipe.fromJsonBytes(json);
+            }
+        }
+        return store.read(filename);
+    }
+
+    @Override
+    public RecipeSummary readSummary(String filename) throws IOException {
+        synchronized (lock) {
+            if (pending.containsKey(filename) || inFlight.containsKey(filename)) {
+                return RecipeSummary.of(filename, read(filename));
+            }
+        }
+        return store.readSummary(filename);
+    }
+
+    @Override
+    public void write(String filename, Recipe recipe) throws IOException {
+        enqueue(filename, recipe.toCompactJsonBytes());
+    }
+
+    @Override
+    public boolean create(String filename, Recipe recipe) throws IOException {
+        byte[] json = recipe.toCompactJsonBytes();
+        synchronized (lock) {
+            if (exists(filename)) {
+                return false;
+            }
+            enqueue(filename, json);
+            return true;
+        }
+    }
+
+    @Override
+    public void writeBatch(Map<String, Recipe> changes) throws IOException {
+        Map<String, byte[]> snapshots = new LinkedHashMap<>();
+        for (Map.Entry<String, Recipe> change : changes.entrySet()) {
+            snapshots.put(change.getKey(), change.getValue() == null ? null : change.getValue().toCompactJsonBytes());
+        }
+        synchronized (lock) {
+            for (Map.Entry<String, byte[]> change : snapshots.entrySet()) {
+                enqueue(change.getKey(), change.getValue());
+            }
+        }
+    }
+
+    @Override
+    public boolean delete(String filename) {
+        synchronized (lock) {
+            if (!exists(filename)) {
+                return false;
+            }
+            enqueue(filename, null);
+            return true;
+        }
+    }
+
+    /**
+     * Pending changes get their own negative versions (never -1) until they are stored
+     */
+    @Override
+    public long version(String filename) {
+        synchronized (lock) {
+            if (pending.containsKey(filename) || inFlight.containsKey(filename)) {
+                return exists(filename) ? pendingVersions.get(filename) : -1;
+            }
+        }
+        return store.version(filename);
+    }
+
+    @Override
+    public String describe(String filename) {
+        return store.describe(filename);
+    }
+
+    @Override
+    public boolean watch(ChangeListener listener) {
+        return store.watch(listener);
+    }
+
+    /**
+     * Waits until every change accepted so far is stored, failing if a batch could not be written meanwhile
+     */
+    @Override
+    public void flush() throws IOException {
+        synchronized (lock) {
+            long target = accepted;
+            long failuresBefore = failures;
+            while (written < target) {
+                if (failures != failuresBefore) {
+                    throw new IOException("Could not store pending recipes: " + lastFailure.getMessage(), lastFailure);
+                }
+                flushRequested = true;
+                lock.notifyAll();
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while storing pending recipes", e);
+                }
+            }
+        }
+    }
+
+    private void enqueue(String filename, byte[] json) {
+        synchronized (lock) {
+            // Re-inserting moves the filename to the end, keeping changes in the order they were made
+            pending.remove(filename);
+            pending.put(filename, json);
+            pendingVersions.put(filename, -2 - ++accepted);
+            lock.notifyAll();
+        }
+    }
+
+    private static void applyPending(TreeSet<String> filenames, Map<String, byte[]> changes) {
+        for (Map.Entry<String, byte[]> change : changes.entrySet()) {
+            if (change.getValue() == null) {
+                filenames.remove(change.getKey());
+            } else {
+                filenames.add(change.getKey());
+            }
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            Map<String, byte[]> batch;
+            long batchEnd;
+            try {
+                synchronized (lock) {
+                    while (pending.isEmpty()) {
+                        lock.wait();
+                    }
+                    // Give a burst of changes a moment to gather, unless someone is waiting on a flush
+                    long deadline = System.currentTimeMillis() + BATCH_DELAY_MILLIS;
+                    long remaining;
+                    while (!flushRequested && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                        lock.wait(remaining);
+                    }
+                    flushRequested = false;
+
+                    batch = pending;
+                    batchEnd = accepted;
+                    inFlight = batch;
+                    pending = new LinkedHashMap<>();
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            try {
+                Map<String, Recipe> recipes = new LinkedHashMap<>();
+                for (Map.Entry<String, byte[]> change : batch.entrySet()) {
+                    recipes.put(change.getKey(), change.getValue() == null ? null : Recipe.fromJsonBytes(change.getValue()));
+                }
+                store.writeBatch(recipes);
+                synchronized (lock) {
+                    written = batchEnd;
+                    inFlight = new LinkedHashMap<>();
+                    for (String filename : batch.keySet()) {
+                        if (!pending.containsKey(filename)) {
+                            pendingVersions.remove(filename);
+                        }
+                    }
+                    lock.notifyAll();
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Warning: Could not store recipes in " + store.getLocation() + ": " + e.getMessage());
+                synchronized (lock) {
+                    // Put the batch back in front of anything newer, which wins for the same filename
+                    Map<String, byte[]> retry = new LinkedHashMap<>(batch);
+                    for (Map.Entry<String, byte[]> change : pending.entrySet()) {
+                        retry.remove(change.getKey());
+                        retry.put(change.getKey(), change.getValue());
+                    }
+                    pending = retry;
+                    inFlight = new LinkedHashMap<>();
+                    failures++;
+                    lastFailure = e;
+                    lock.notifyAll();
+                }
+                try {
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+}
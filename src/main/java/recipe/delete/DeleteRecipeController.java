@@ -4,7 +4,9 @@ import recipe.common.Terminal;
 import recipe.common.ScrollableTerminalRenderer;
 import recipe.common.PromptBasedController;
 import recipe.common.RecipeFileManager;
+import recipe.common.RecipeLibrary;
 import recipe.common.Recipe;
+import recipe.common.RecipeSummary;
 import recipe.view.ViewRecipeModel;
 import recipe.view.ViewRecipeRenderer;
 import com.googlecode.lanterna.TextColor;
@@ -24,12 +26,16 @@ public class DeleteRecipeController {
   private final DeleteRecipeRenderer deleteRenderer;
 
   public DeleteRecipeController(Terminal terminal, RecipeFileManager fileManager) {
+    this(terminal, new RecipeLibrary(fileManager));
+  }
+
+  public DeleteRecipeController(Terminal terminal, RecipeLibrary library) {
     this.terminal = terminal;
     this.renderer = new ScrollableTerminalRenderer(terminal);
     this.promptController = new PromptBasedController(terminal, renderer);
-    this.viewModel = new ViewRecipeModel(fileManager);
+    this.viewModel = new ViewRecipeModel(library);
     this.viewRenderer = new ViewRecipeRenderer(renderer);
-    this.deleteModel = new DeleteRecipeModel(fileManager);
+    this.deleteModel = new DeleteRecipeModel(library.getFileManager());
     this.deleteRenderer = new DeleteRecipeRenderer(renderer);
   }
 
@@ -46,10 +52,11 @@ public class DeleteRecipeController {
       }
 
       // Recipe selection phase (inherited from ViewRecipeController)
-      Recipe selectedRecipe = selectRecipe();
-      if (selectedRecipe == null) {
+      RecipeSummary selectedSummary = selectRecipe();
+      if (selectedSummary == null) {
         return; // User cancelled selection
       }
+      Recipe selectedRecipe = viewModel.openRecipe(selectedSummary);
 
       // Multi-stage deletion confirmation
       if (handleDeletionProcess(selectedRecipe)) {
@@ -63,14 +70,14 @@ public class DeleteRecipeController {
     }
   }
 
-  private Recipe selectRecipe() throws IOException {
+  private RecipeSummary selectRecipe() throws IOException {
     // Main interaction loop for recipe selection
     while (true) {
       // If more than 9 recipes, skip table and go directly to search
       if (viewModel.getRecipeCount() > 9) {
         renderer.clear();
         viewRenderer.renderSearchPrompt(viewModel.getRecipeCount());
-        Recipe selected = handleSearch();
+        RecipeSummary selected = handleSearch();
         if (selected != null) {
           return selected;
         }
@@ -80,7 +87,7 @@ public class DeleteRecipeController {
         viewRenderer.renderRecipeTable(viewModel.getRecipes(), viewModel.getSearchQuery());
 
         // Handle user input
-        Recipe selected = handleUserInput();
+        RecipeSummary selected = handleUserInput();
         if (selected == null) {
           return null; // User chose to exit
         }
@@ -89,7 +96,7 @@ public class DeleteRecipeController {
     }
   }
 
-  private Recipe handleUserInput() throws IOException {
+  private RecipeSummary handleUserInput() throws IOException {
     String prompt = buildPrompt();
     renderer.print(prompt, TextColor.ANSI.YELLOW);
 
@@ -119,7 +126,7 @@ public class DeleteRecipeController {
       if (ch >= '1' && ch <= '9') {
         int recipeNumber = ch - '0';
         if (recipeNumber >= 1 && recipeNumber <= viewModel.getRecipeCount()) {
-          Recipe selectedRecipe = viewModel.getRecipeByNumber(recipeNumber);
+          RecipeSummary selectedRecipe = viewModel.getRecipeByNumber(recipeNumber);
           if (selectedRecipe != null) {
             return selectedRecipe;
           }
@@ -149,7 +156,7 @@ public class DeleteRecipeController {
     }
   }
 
-  private Recipe handleSearch() throws IOException {
+  private RecipeSummary handleSearch() throws IOException {
     String searchQuery = promptController.promptForText("Enter recipe name to search (or 'v' to view all): ");
 
     if (searchQuery == null) {
@@ -166,7 +173,7 @@ public class DeleteRecipeController {
     }
 
     // Search for all matching recipes
-    List<Recipe> foundRecipes = viewModel.searchRecipesByName(searchQuery);
+    List<RecipeSummary> foundRecipes = viewModel.searchRecipesByName(searchQuery);
 
     if (foundRecipes.isEmpty()) {
       renderer.printError("Recipe not found: " + searchQuery);
@@ -183,8 +190,8 @@ public class DeleteRecipeController {
     return handleMultipleSearchResults(foundRecipes, searchQuery);
   }
 
-  private Recipe handleViewAllRecipes() throws IOException {
-    List<Recipe> allRecipes = viewModel.getRecipes();
+  private RecipeSummary handleViewAllRecipes() throws IOException {
+    List<RecipeSummary> allRecipes = viewModel.getRecipes();
     int totalRecipes = allRecipes.size();
     
     // Calculate recipes per page based on terminal height
@@ -196,7 +203,7 @@ public class DeleteRecipeController {
       // Calculate current page recipes
       int startIndex = (currentPage - 1) * recipesPerPage;
       int endIndex = Math.min(startIndex + recipesPerPage, totalRecipes);
-      List<Recipe> pageRecipes = allRecipes.subList(startIndex, endIndex);
+      List<RecipeSummary> pageRecipes = allRecipes.subList(startIndex, endIndex);
       
       // Clear console and show current page of recipes
       renderer.clear();
@@ -237,7 +244,7 @@ public class DeleteRecipeController {
         int globalIndex = startIndex + recipeNumber - 1;
         
         if (recipeNumber >= 1 && recipeNumber <= pageRecipes.size()) {
-          Recipe selectedRecipe = allRecipes.get(globalIndex);
+          RecipeSummary selectedRecipe = allRecipes.get(globalIndex);
           viewModel.setSearchQuery(""); // Clear search query for all recipes view
           return selectedRecipe;
         } else {
@@ -245,7 +252,7 @@ public class DeleteRecipeController {
         }
       } catch (NumberFormatException e) {
         // Not a number, try searching by name
-        List<Recipe> foundRecipes = viewModel.searchRecipesByName(input);
+        List<RecipeSummary> foundRecipes = viewModel.searchRecipesByName(input);
         
         if (foundRecipes.isEmpty()) {
           renderer.printError("Recipe not found: " + input);
@@ -282,9 +289,9 @@ public class DeleteRecipeController {
     return prompt.toString();
   }
 
-  private Recipe handleMultipleSearchResults(List<Recipe> foundRecipes, String searchQuery) throws IOException {
+  private RecipeSummary handleMultipleSearchResults(List<RecipeSummary> foundRecipes, String searchQuery) throws IOException {
     // Limit to 9 results for table display
-    List<Recipe> displayRecipes = foundRecipes.size() > 9 ? 
+    List<RecipeSummary> displayRecipes = foundRecipes.size() > 9 ? 
         foundRecipes.subList(0, 9) : foundRecipes;
 
     while (true) {
@@ -327,7 +334,7 @@ public class DeleteRecipeController {
         if (ch >= '1' && ch <= '9') {
           int recipeNumber = ch - '0';
           if (recipeNumber >= 1 && recipeNumber <= displayRecipes.size()) {
-            Recipe selectedRecipe = displayRecipes.get(recipeNumber - 1);
+            RecipeSummary selectedRecipe = displayRecipes.get(recipeNumber - 1);
             viewModel.setSearchQuery(searchQuery);
             return selectedRecipe;
           } else {
@@ -4,7 +4,9 @@ import recipe.common.Terminal;
 import recipe.common.ScrollableTerminalRenderer;
 import recipe.common.PromptBasedController;
 import recipe.common.RecipeFileManager;
+import recipe.common.RecipeLibrary;
 import recipe.common.Recipe;
+import recipe.common.RecipeSummary;
 import recipe.common.Ingredient;
 import recipe.common.SlugUtils;
 import recipe.view.ViewRecipeModel;
@@ -27,14 +29,18 @@ public class EditRecipeController {
   private final RecipeFileManager fileManager;
 
   public EditRecipeController(Terminal terminal, RecipeFileManager fileManager) {
+    this(terminal, new RecipeLibrary(fileManager));
+  }
+
+  public EditRecipeController(Terminal terminal, RecipeLibrary library) {
     this.terminal = terminal;
     this.renderer = new ScrollableTerminalRenderer(terminal);
     this.promptController = new PromptBasedController(terminal, renderer);
-    this.viewModel = new ViewRecipeModel(fileManager);
+    this.viewModel = new ViewRecipeModel(library);
     this.viewRenderer = new ViewRecipeRenderer(renderer);
+    this.fileManager = library.getFileManager();
     this.editModel = new EditRecipeModel(fileManager);
     this.editRenderer = new EditRecipeRenderer(renderer);
-    this.fileManager = fileManager;
   }
 
   public void run() throws IOException {
@@ -50,13 +56,14 @@ public class EditRecipeController {
       }
 
       // Recipe selection phase (inherited from ViewRecipeController)
-      Recipe selectedRecipe = selectRecipe();
-      if (selectedRecipe == null) {
+      RecipeSummary selectedSummary = selectRecipe();
+      if (selectedSummary == null) {
         return; // User cancelled selection
       }
+      Recipe selectedRecipe = viewModel.openRecipe(selectedSummary);
 
       // Load recipe into edit model
-      editModel.loadRecipe(selectedRecipe);
+      editModel.loadRecipe(selectedRecipe, selectedSummary.getFilename());
 
       // Show edit confirmation
       editRenderer.renderEditConfirmation(selectedRecipe);
@@ -74,14 +81,14 @@ public class EditRecipeController {
     }
   }
 
-  private Recipe selectRecipe() throws IOException {
+  private RecipeSummary selectRecipe() throws IOException {
     // Main interaction loop for recipe selection
     while (true) {
       // If more than 9 recipes, skip table and go directly to search
       if (viewModel.getRecipeCount() > 9) {
         renderer.clear();
         viewRenderer.renderSearchPrompt(viewModel.getRecipeCount());
-        Recipe selected = handleSearch();
+        RecipeSummary selected = handleSearch();
         if (selected != null) {
           return selected;
         }
@@ -91,7 +98,7 @@ public class EditRecipeController {
         viewRenderer.renderRecipeTable(viewModel.getRecipes(), viewModel.getSearchQuery());
 
         // Handle user input
-        Recipe selected = handleUserInput();
+        RecipeSummary selected = handleUserInput();
         if (selected == null) {
           return null; // User chose to exit
         }
@@ -100,7 +107,7 @@ public class EditRecipeController {
     }
   }
 
-  private Recipe handleUserInput() throws IOException {
+  private RecipeSummary handleUserInput() throws IOException {
     String prompt = buildPrompt();
     renderer.print(prompt, TextColor.ANSI.YELLOW);
 
@@ -130,7 +137,7 @@ public class EditRecipeController {
       if (ch >= '1' && ch <= '9') {
         int recipeNumber = ch - '0';
         if (recipeNumber >= 1 && recipeNumber <= viewModel.getRecipeCount()) {
-          Recipe selectedRecipe = viewModel.getRecipeByNumber(recipeNumber);
+          RecipeSummary selectedRecipe = viewModel.getRecipeByNumber(recipeNumber);
           if (selectedRecipe != null) {
             return selectedRecipe;
           }
@@ -160,7 +167,7 @@ public class EditRecipeController {
     }
   }
 
-  private Recipe handleSearch() throws IOException {
+  private RecipeSummary handleSearch() throws IOException {
     String searchQuery = promptController.promptForText("Enter recipe name to search (or 'v' to view all): ");
 
     if (searchQuery == null) {
@@ -177,7 +184,7 @@ public class EditRecipeController {
     }
 
     // Search for all matching recipes
-    List<Recipe> foundRecipes = viewModel.searchRecipesByName(searchQuery);
+    List<RecipeSummary> foundRecipes = viewModel.searchRecipesByName(searchQuery);
 
     if (foundRecipes.isEmpty()) {
       renderer.printError("Recipe not found: " + searchQuery);
@@ -194,8 +201,8 @@ public class EditRecipeController {
     return handleMultipleSearchResults(foundRecipes, searchQuery);
   }
 
-  private Recipe handleViewAllRecipes() throws IOException {
-    List<Recipe> allRecipes = viewModel.getRecipes();
+  private RecipeSummary handleViewAllRecipes() throws IOException {
+    List<RecipeSummary> allRecipes = viewModel.getRecipes();
     int totalRecipes = allRecipes.size();
     
     // Calculate recipes per page based on terminal height
@@ -207,7 +214,7 @@ public class EditRecipeController {
       // Calculate current page recipes
       int startIndex = (currentPage - 1) * recipesPerPage;
       int endIndex = Math.min(startIndex + recipesPerPage, totalRecipes);
-      List<Recipe> pageRecipes = allRecipes.subList(startIndex, endIndex);
+      List<RecipeSummary> pageRecipes = allRecipes.subList(startIndex, endIndex);
       
       // Clear console and show current page of recipes
       renderer.clear();
@@ -248,7 +255,7 @@ public class EditRecipeController {
         int globalIndex = startIndex + recipeNumber - 1;
         
         if (recipeNumber >= 1 && recipeNumber <= pageRecipes.size()) {
-          Recipe selectedRecipe = allRecipes.get(globalIndex);
+          RecipeSummary selectedRecipe = allRecipes.get(globalIndex);
           viewModel.setSearchQuery(""); // Clear search query for all recipes view
           return selectedRecipe;
         } else {
@@ -256,7 +263,7 @@ public class EditRecipeController {
         }
       } catch (NumberFormatException e) {
         // Not a number, try searching by name
-        List<Recipe> foundRecipes = viewModel.searchRecipesByName(input);
+        List<RecipeSummary> foundRecipes = viewModel.searchRecipesByName(input);
         
         if (foundRecipes.isEmpty()) {
           renderer.printError("Recipe not found: " + input);
@@ -293,9 +300,9 @@ public class EditRecipeController {
     return prompt.toString();
   }
 
-  private Recipe handleMultipleSearchResults(List<Recipe> foundRecipes, String searchQuery) throws IOException {
+  private RecipeSummary handleMultipleSearchResults(List<RecipeSummary> foundRecipes, String searchQuery) throws IOException {
     // Limit to 9 results for table display
-    List<Recipe> displayRecipes = foundRecipes.size() > 9 ? 
+    List<RecipeSummary> displayRecipes = foundRecipes.size() > 9 ? 
         foundRecipes.subList(0, 9) : foundRecipes;
 
     while (true) {
@@ -338,7 +345,7 @@ public class EditRecipeController {
         if (ch >= '1' && ch <= '9') {
           int recipeNumber = ch - '0';
           if (recipeNumber >= 1 && recipeNumber <= displayRecipes.size()) {
-            Recipe selectedRecipe = displayRecipes.get(recipeNumber - 1);
+            RecipeSummary selectedRecipe = displayRecipes.get(recipeNumber - 1);
             viewModel.setSearchQuery(searchQuery);
             return selectedRecipe;
           } else {
@@ -695,12 +702,8 @@ public class EditRecipeController {
       // Save the edited recipe
       Recipe editedRecipe = editModel.getCurrentRecipe();
       
-      // Delete the original recipe file
-      String originalSlug = editModel.getOriginalRecipe().getSlug();
-      fileManager.deleteRecipeBySlug(originalSlug);
-      
-      // Save the new recipe
-      String newFilename = fileManager.saveRecipe(editedRecipe);
+      // Replace the original recipe file; it is only removed once the edited recipe is safely stored
+      String newFilename = fileManager.replaceRecipe(editModel.getOriginalFilename(), editedRecipe);
       
       editRenderer.renderSuccess("Recipe saved successfully as: " + newFilename);
       promptController.waitForEnter();
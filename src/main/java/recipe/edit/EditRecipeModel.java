@@ -14,6 +14,7 @@ import java.util.List;
 public class EditRecipeModel {
   private final RecipeFileManager fileManager;
   private Recipe originalRecipe;
+  private String originalFilename;
   private Recipe currentRecipe;
   private boolean hasChanges;
 
@@ -26,7 +27,15 @@ public class EditRecipeModel {
    * Loads a recipe for editing
    */
   public void loadRecipe(Recipe recipe) {
+    loadRecipe(recipe, recipe.getSlug() + ".json");
+  }
+
+  /**
+   * Loads a recipe for editing, remembering the file it was stored in
+   */
+  public void loadRecipe(Recipe recipe, String filename) {
     this.originalRecipe = recipe;
+    this.originalFilename = filename;
     // Create a deep copy for editing
     this.currentRecipe = createRecipeCopy(recipe);
     this.hasChanges = false;
@@ -63,6 +72,13 @@ public class EditRecipeModel {
     return originalRecipe;
   }
 
+  /**
+   * Gets the filename the original recipe was stored in
+   */
+  public String getOriginalFilename() {
+    return originalFilename;
+  }
+
   /**
    * Gets the current recipe being edited
    */
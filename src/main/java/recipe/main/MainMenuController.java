@@ -2,6 +2,7 @@ package recipe.main;
 
 import recipe.common.AbstractMenuController;
 import recipe.common.RecipeFileManager;
+import recipe.common.RecipeLibrary;
 import recipe.common.Terminal;
 import recipe.new_recipe.NewRecipeController;
 import recipe.view.ViewRecipeController;
@@ -12,8 +13,16 @@ import com.googlecode.lanterna.TextColor;
 import java.io.IOException;
 
 public class MainMenuController extends AbstractMenuController<MainMenuItem> {
+  // Shared by every screen, so moving between menus never reloads the recipe list
+  private final RecipeLibrary library;
+
   public MainMenuController(Terminal terminal, MainMenuModel model, MainMenuRenderer renderer) {
+    this(terminal, model, renderer, new RecipeLibrary(new RecipeFileManager()));
+  }
+
+  public MainMenuController(Terminal terminal, MainMenuModel model, MainMenuRenderer renderer, RecipeLibrary library) {
     super(terminal, model, renderer);
+    this.library = library;
   }
 
   @Override
@@ -23,8 +32,7 @@ public class MainMenuController extends AbstractMenuController<MainMenuItem> {
         try {
           // Clear screen before transitioning to calculate recipe menu
           terminal.clear();
-          RecipeFileManager recipeFileManager = new RecipeFileManager();
-          CalculateRecipeController calculateController = new CalculateRecipeController(terminal, recipeFileManager);
+          CalculateRecipeController calculateController = new CalculateRecipeController(terminal, library);
           calculateController.run();
           // After calculating recipes, re-render the main menu
           renderer.render();
@@ -37,8 +45,7 @@ public class MainMenuController extends AbstractMenuController<MainMenuItem> {
         try {
           // Clear screen before transitioning to view recipe menu
           terminal.clear();
-          RecipeFileManager recipeFileManager = new RecipeFileManager();
-          ViewRecipeController viewController = new ViewRecipeController(terminal, recipeFileManager);
+          ViewRecipeController viewController = new ViewRecipeController(terminal, library);
           viewController.run();
           // After viewing recipes, re-render the main menu
           renderer.render();
@@ -51,7 +58,7 @@ public class MainMenuController extends AbstractMenuController<MainMenuItem> {
         try {
           // Clear screen before transitioning to new recipe menu
           terminal.clear();
-          NewRecipeController newRecipeController = new NewRecipeController(terminal);
+          NewRecipeController newRecipeController = new NewRecipeController(terminal, library);
           newRecipeController.createNewRecipe();
           // After recipe creation, re-render the main menu
           renderer.render();
@@ -64,8 +71,7 @@ public class MainMenuController extends AbstractMenuController<MainMenuItem> {
         try {
           // Clear screen before transitioning to edit recipe menu
           terminal.clear();
-          RecipeFileManager recipeFileManager = new RecipeFileManager();
-          EditRecipeController editController = new EditRecipeController(terminal, recipeFileManager);
+          EditRecipeController editController = new EditRecipeController(terminal, library);
           editController.run();
           // After editing recipes, re-render the main menu
           renderer.render();
@@ -78,8 +84,7 @@ public class MainMenuController extends AbstractMenuController<MainMenuItem> {
         try {
           // Clear screen before transitioning to delete recipe menu
           terminal.clear();
-          RecipeFileManager recipeFileManager = new RecipeFileManager();
-          DeleteRecipeController deleteController = new DeleteRecipeController(terminal, recipeFileManager);
+          DeleteRecipeController deleteController = new DeleteRecipeController(terminal, library);
           deleteController.run();
           // After deleting recipes, re-render the main menu
           renderer.render();
@@ -4,6 +4,7 @@ import recipe.common.Terminal;
 import recipe.common.ScrollableTerminalRenderer;
 import recipe.common.PromptBasedController;
 import recipe.common.RecipeFileManager;
+import recipe.common.RecipeLibrary;
 import recipe.common.Recipe;
 import recipe.common.Ingredient;
 import recipe.common.SlugUtils;
@@ -21,12 +22,16 @@ public class NewRecipeController {
   private final RecipeFileManager fileManager;
 
   public NewRecipeController(Terminal terminal) {
+    this(terminal, new RecipeLibrary(new RecipeFileManager()));
+  }
+
+  public NewRecipeController(Terminal terminal, RecipeLibrary library) {
     this.terminal = terminal;
     this.renderer = new ScrollableTerminalRenderer(terminal);
     this.promptController = new PromptBasedController(terminal, renderer);
     this.model = new NewRecipeModel();
     this.recipeRenderer = new NewRecipeRenderer(renderer);
-    this.fileManager = new RecipeFileManager();
+    this.fileManager = library.getFileManager();
   }
 
   // Runs the complete new recipe creation flow
@@ -4,7 +4,9 @@ import recipe.common.Terminal;
 import recipe.common.ScrollableTerminalRenderer;
 import recipe.common.PromptBasedController;
 import recipe.common.RecipeFileManager;
+import recipe.common.RecipeLibrary;
 import recipe.common.Recipe;
+import recipe.common.RecipeSummary;
 import com.googlecode.lanterna.TextColor;
 import com.googlecode.lanterna.input.KeyStroke;
 import com.googlecode.lanterna.input.KeyType;
@@ -20,10 +22,14 @@ public class ViewRecipeController {
   private final ViewRecipeRenderer viewRenderer;
 
   public ViewRecipeController(Terminal terminal, RecipeFileManager fileManager) {
+    this(terminal, new RecipeLibrary(fileManager));
+  }
+
+  public ViewRecipeController(Terminal terminal, RecipeLibrary library) {
     this.terminal = terminal;
     this.renderer = new ScrollableTerminalRenderer(terminal);
     this.promptController = new PromptBasedController(terminal, renderer);
-    this.viewModel = new ViewRecipeModel(fileManager);
+    this.viewModel = new ViewRecipeModel(library, true);
     this.viewRenderer = new ViewRecipeRenderer(renderer);
   }
 
@@ -128,7 +134,7 @@ public class ViewRecipeController {
       if (ch >= '1' && ch <= '9') {
         int recipeNumber = ch - '0';
         if (recipeNumber >= 1 && recipeNumber <= viewModel.getRecipeCount()) {
-          Recipe selectedRecipe = viewModel.getRecipeByNumber(recipeNumber);
+          RecipeSummary selectedRecipe = viewModel.getRecipeByNumber(recipeNumber);
           if (selectedRecipe != null) {
             return handleRecipeView(selectedRecipe);
           }
@@ -175,7 +181,7 @@ public class ViewRecipeController {
     }
 
     // Search for all matching recipes
-    List<Recipe> foundRecipes = viewModel.searchRecipesByName(searchQuery);
+    List<RecipeSummary> foundRecipes = viewModel.searchRecipesByName(searchQuery);
 
     if (foundRecipes.isEmpty()) {
       renderer.printError("Recipe not found: " + searchQuery);
@@ -193,7 +199,7 @@ public class ViewRecipeController {
   }
 
   private boolean handleViewAllRecipes() throws IOException {
-    List<Recipe> allRecipes = viewModel.getRecipes();
+    List<RecipeSummary> allRecipes = viewModel.getRecipes();
     int totalRecipes = allRecipes.size();
     
     // Calculate recipes per page based on terminal height
@@ -206,7 +212,7 @@ public class ViewRecipeController {
       // Calculate current page recipes
       int startIndex = (currentPage - 1) * recipesPerPage;
       int endIndex = Math.min(startIndex + recipesPerPage, totalRecipes);
-      List<Recipe> pageRecipes = allRecipes.subList(startIndex, endIndex);
+      List<RecipeSummary> pageRecipes = allRecipes.subList(startIndex, endIndex);
       
       // Clear console and show current page of recipes
       renderer.clear();
@@ -247,7 +253,7 @@ public class ViewRecipeController {
         int globalIndex = startIndex + recipeNumber - 1;
         
         if (recipeNumber >= 1 && recipeNumber <= pageRecipes.size()) {
-          Recipe selectedRecipe = allRecipes.get(globalIndex);
+          RecipeSummary selectedRecipe = allRecipes.get(globalIndex);
           viewModel.setSearchQuery(""); // Clear search query for all recipes view
           return handleRecipeView(selectedRecipe);
         } else {
@@ -255,7 +261,7 @@ public class ViewRecipeController {
         }
       } catch (NumberFormatException e) {
         // Not a number, try searching by name (search across all recipes, not just current page)
-        List<Recipe> foundRecipes = viewModel.searchRecipesByName(input);
+        List<RecipeSummary> foundRecipes = viewModel.searchRecipesByName(input);
         
         if (foundRecipes.isEmpty()) {
           renderer.printError("Recipe not found: " + input);
@@ -292,9 +298,9 @@ public class ViewRecipeController {
     return prompt.toString();
   }
 
-  private boolean handleMultipleSearchResults(List<Recipe> foundRecipes, String searchQuery) throws IOException {
+  private boolean handleMultipleSearchResults(List<RecipeSummary> foundRecipes, String searchQuery) throws IOException {
     // Limit to 9 results for table display
-    List<Recipe> displayRecipes = foundRecipes.size() > 9 ? 
+    List<RecipeSummary> displayRecipes = foundRecipes.size() > 9 ? 
         foundRecipes.subList(0, 9) : foundRecipes;
 
     while (true) {
@@ -337,7 +343,7 @@ public class ViewRecipeController {
         if (ch >= '1' && ch <= '9') {
           int recipeNumber = ch - '0';
           if (recipeNumber >= 1 && recipeNumber <= displayRecipes.size()) {
-            Recipe selectedRecipe = displayRecipes.get(recipeNumber - 1);
+            RecipeSummary selectedRecipe = displayRecipes.get(recipeNumber - 1);
             viewModel.setSearchQuery(searchQuery);
             return handleRecipeView(selectedRecipe);
           } else {
@@ -350,7 +356,10 @@ public class ViewRecipeController {
     }
   }
 
-  private boolean handleRecipeView(Recipe recipe) throws IOException {
+  private boolean handleRecipeView(RecipeSummary summary) throws IOException {
+    // Only the opened recipe is loaded in full
+    Recipe recipe = viewModel.openRecipe(summary);
+
     // Display recipe details
     viewRenderer.renderRecipeDetails(recipe);
 
@@ -1,41 +1,66 @@
 package recipe.view;
 
+import recipe.common.CompiledRecipeCatalog;
 import recipe.common.Recipe;
 import recipe.common.RecipeFileManager;
-import recipe.common.SlugUtils;
+import recipe.common.RecipeLibrary;
+import recipe.common.RecipeSummary;
+import recipe.common.TrigramIndex;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class ViewRecipeModel {
-  private final RecipeFileManager recipeFileManager;
-  private List<Recipe> recipes;
+  private final RecipeLibrary library;
+  private final boolean readOnly;
+  private CompiledRecipeCatalog compiledCatalog;
+  private List<RecipeSummary> recipes;
   private String searchQuery = "";
 
   public ViewRecipeModel(RecipeFileManager recipeFileManager) {
-    this.recipeFileManager = recipeFileManager;
+    this(new RecipeLibrary(recipeFileManager), false);
+  }
+
+  public ViewRecipeModel(RecipeFileManager recipeFileManager, boolean readOnly) {
+    this(new RecipeLibrary(recipeFileManager), readOnly);
+  }
+
+  public ViewRecipeModel(RecipeLibrary library) {
+    this(library, false);
+  }
+
+  // Read-only screens may list recipes from the compiled catalog (-Drecipe.compiledCatalog)
+  public ViewRecipeModel(RecipeLibrary library, boolean readOnly) {
+    this.library = library;
+    this.readOnly = readOnly;
     this.recipes = new ArrayList<>();
     loadRecipes();
   }
 
   private void loadRecipes() {
-    try {
-      recipes = recipeFileManager.listRecipes();
-
-      // Sort recipes alphabetically by name
-      recipes.sort((r1, r2) -> r1.getName().compareToIgnoreCase(r2.getName()));
-
-    } catch (IOException e) {
-      System.err.println("Error loading recipes: " + e.getMessage());
-      recipes = new ArrayList<>();
+    compiledCatalog = readOnly ? library.getCompiledCatalog() : null;
+
+    if (compiledCatalog != null) {
+      // Rows are already sorted by name and are decoded only when displayed
+      recipes = compiledCatalog.summaries();
+    } else {
+      // Sorted alphabetically by name; the shared library only re-sorts after changes
+      recipes = library.getSortedSummaries();
     }
   }
 
-  public List<Recipe> getRecipes() {
-    return new ArrayList<>(recipes);
+  public List<RecipeSummary> getRecipes() {
+    return Collections.unmodifiableList(recipes);
+  }
+
+  // Loads the full recipe behind a summary
+  public Recipe openRecipe(RecipeSummary summary) throws IOException {
+    if (compiledCatalog != null) {
+      return compiledCatalog.loadRecipe(summary);
+    }
+    return library.getFileManager().loadRecipe(summary.getFilename());
   }
 
   public boolean shouldShowSearch() {
@@ -50,14 +75,14 @@ public class ViewRecipeModel {
     this.searchQuery = query;
   }
 
-  public Recipe searchRecipeByName(String name) {
-    List<Recipe> matches = searchRecipesByName(name);
+  public RecipeSummary searchRecipeByName(String name) {
+    List<RecipeSummary> matches = searchRecipesByName(name);
     return matches.isEmpty() ? null : matches.get(0);
   }
 
-  public List<Recipe> searchRecipesByName(String name) {
-    List<Recipe> matches = new ArrayList<>();
-    
+  public List<RecipeSummary> searchRecipesByName(String name) {
+    List<RecipeSummary> matches = new ArrayList<>();
+
     if (name == null || name.trim().isEmpty()) {
       return matches;
     }
@@ -66,30 +91,21 @@ public class ViewRecipeModel {
     if (recipes == null || recipes.isEmpty()) {
       loadRecipes();
     }
+    // Built on the first search and shared by every screen, so listing never has to touch every row
+    TrigramIndex nameIndex = library.getNameIndex(recipes);
 
     // Sanitize input: trim, lowercase
     String searchTerm = name.trim().toLowerCase();
-    
-    // Try partial name matching - collect all matches
-    for (Recipe recipe : recipes) {
-      if (recipe == null) continue;
-      
-      String recipeName = recipe.getName();
-      String recipeSlug = recipe.getSlug();
-      
-      if (recipeName == null || recipeSlug == null) continue;
-      
-      // Check if the search term appears in the recipe name (case insensitive)
-      if (recipeName.toLowerCase().contains(searchTerm) || 
-          recipeSlug.toLowerCase().contains(searchTerm)) {
-        matches.add(recipe);
-      }
+
+    // Partial name matching against the precomputed name/slug index - collect all matches
+    for (int index : nameIndex.search(searchTerm)) {
+      matches.add(recipes.get(index));
     }
 
     return matches;
   }
 
-  public Recipe getRecipeByNumber(int number) {
+  public RecipeSummary getRecipeByNumber(int number) {
     if (number < 1 || number > recipes.size()) {
       return null;
     }
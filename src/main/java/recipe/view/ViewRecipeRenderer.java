@@ -2,6 +2,7 @@ package recipe.view;
 
 import recipe.common.ScrollableTerminalRenderer;
 import recipe.common.Recipe;
+import recipe.common.RecipeSummary;
 import com.googlecode.lanterna.TextColor;
 
 import java.io.IOException;
@@ -20,11 +21,11 @@ public class ViewRecipeRenderer {
     renderer.printBlankLine();
   }
 
-  public void renderRecipeTable(List<Recipe> recipes, String searchQuery) throws IOException {
+  public void renderRecipeTable(List<RecipeSummary> recipes, String searchQuery) throws IOException {
     renderRecipeTableWithPagination(recipes, searchQuery, 0, 0, 1);
   }
 
-  public void renderRecipeTableWithPagination(List<Recipe> recipes, String searchQuery, int currentPage, int totalPages, int startNumber) throws IOException {
+  public void renderRecipeTableWithPagination(List<RecipeSummary> recipes, String searchQuery, int currentPage, int totalPages, int startNumber) throws IOException {
     // Status line with pagination info
     String statusLine;
     if (searchQuery != null && !searchQuery.trim().isEmpty()) {
@@ -63,7 +64,7 @@ public class ViewRecipeRenderer {
 
     // Table rows
     for (int i = 0; i < recipes.size(); i++) {
-      Recipe recipe = recipes.get(i);
+      RecipeSummary recipe = recipes.get(i);
       // Show page-relative numbers for user input consistency
       String number = String.valueOf(i + 1);
       String name = truncateString(recipe.getName(), nameWidth);
@@ -85,7 +86,7 @@ public class ViewRecipeRenderer {
     renderer.printBlankLine();
   }
   
-  private int calculateOptimalNameWidth(List<Recipe> recipes) {
+  private int calculateOptimalNameWidth(List<RecipeSummary> recipes) {
     if (recipes.isEmpty()) {
       return 12; // Minimum width for "Recipe Name" header
     }
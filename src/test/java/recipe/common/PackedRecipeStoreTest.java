@@ -0,0 +1,74 @@
+package recipe.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that importing into a pack survives bad recipes and resumes after being cut short
+ */
+class PackedRecipeStoreTest {
+
+    @Test
+    void importSkipsRecipesThatFailAndMarksItselfComplete(@TempDir Path directory) throws IOException {
+        Path recipes = Files.createDirectory(directory.resolve("recipes"));
+        JsonDirectoryStore source = new JsonDirectoryStore(recipes.toString()) {
+            @Override
+            public Recipe read(String filename) throws IOException {
+                if (filename.equals("broken.json")) {
+                    throw new IllegalStateException("reader failed");
+                }
+                return super.read(filename);
+            }
+        };
+        source.write("a.json", new Recipe("A", 1));
+        source.write("broken.json", new Recipe("Broken", 1));
+        source.write("c.json", new Recipe("C", 1));
+
+        Path packFile = directory.resolve("recipes.pack");
+        try (PackedRecipeStore pack = PackedRecipeStore.open(packFile.toString())) {
+            assertFalse(pack.isImportComplete());
+            assertEquals(2, pack.importFrom(source));
+            assertEquals(List.of("a.json", "c.json"), pack.listFilenames());
+            assertTrue(pack.isImportComplete());
+        }
+        try (PackedRecipeStore pack = PackedRecipeStore.open(packFile.toString())) {
+            assertTrue(pack.isImportComplete());
+            pack.compact();
+            assertTrue(pack.isImportComplete());
+        }
+        try (PackedRecipeStore pack = PackedRecipeStore.open(packFile.toString())) {
+            assertTrue(pack.isImportComplete());
+        }
+    }
+
+    @Test
+    void unfinishedImportIsResumedWithoutOverwritingWhatIsThere(@TempDir Path directory) throws IOException {
+        Path recipes = Files.createDirectory(directory.resolve("recipes"));
+        JsonDirectoryStore source = new JsonDirectoryStore(recipes.toString());
+        source.write("a.json", new Recipe("A", 1));
+        source.write("b.json", new Recipe("B", 1));
+
+        // A pack holding only part of the source and no marker, as an import cut short leaves it
+        Path packFile = directory.resolve("recipes.pack");
+        try (PackedRecipeStore pack = PackedRecipeStore.open(packFile.toString())) {
+            pack.write("a.json", new Recipe("A edited", 2));
+        }
+
+        try (PackedRecipeStore pack = PackedRecipeStore.open(packFile.toString())) {
+            assertFalse(pack.isImportComplete());
+            assertEquals(1, pack.importFrom(source));
+            assertEquals(List.of("a.json", "b.json"), pack.listFilenames());
+            assertEquals("A edited", pack.read("a.json").getName());
+            assertTrue(pack.isImportComplete());
+        }
+    }
+}
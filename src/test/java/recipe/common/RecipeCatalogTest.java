@@ -0,0 +1,56 @@
+package recipe.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that recipes the catalog cannot index are skipped rather than breaking every listing
+ */
+class RecipeCatalogTest {
+
+    @Test
+    void skipsRecipesWithNullIngredients(@TempDir Path directory) throws IOException {
+        write(directory, "good.json",
+            "{\"name\":\"Good\",\"ingredients\":[{\"name\":\"Water\",\"amount\":1,\"unit\":\"cup\"}],\"created\":\"c\"}");
+        write(directory, "nullingr.json", "{\"name\":\"No list\",\"ingredients\":null,\"created\":\"c\"}");
+        write(directory, "nullentry.json", "{\"name\":\"Hole\",\"ingredients\":[null],\"created\":\"c\"}");
+        RecipeFileManager manager = new RecipeFileManager(directory.toString(), new JsonDirectoryStore(directory.toString()));
+
+        // Listed twice: a failed first listing must not leave the bad recipes half cached
+        for (int i = 0; i < 2; i++) {
+            List<Recipe> recipes = manager.listRecipes();
+            assertEquals(1, recipes.size());
+            assertEquals("Good", recipes.get(0).getName());
+        }
+        assertEquals(1, manager.searchRecipesByIngredient("water").size());
+        assertThrows(IOException.class, () -> manager.loadRecipe("nullingr.json"));
+        assertThrows(IOException.class, () -> manager.loadRecipe("nullentry.json"));
+    }
+
+    @Test
+    void indexSkipsNullIngredients() {
+        Recipe recipe = new Recipe("Mixed", 1);
+        recipe.getIngredients().add(null);
+        recipe.addIngredient(new Ingredient("Salt", 1, "tsp"));
+        IngredientIndex index = new IngredientIndex();
+        index.add("mixed", recipe);
+        assertEquals(1, index.search("salt").size());
+
+        recipe.setIngredients(null);
+        index.add("mixed", recipe);
+        assertEquals(0, index.search("salt").size());
+    }
+
+    private static void write(Path directory, String filename, String json) throws IOException {
+        Files.write(directory.resolve(filename), json.getBytes(StandardCharsets.UTF_8));
+    }
+}
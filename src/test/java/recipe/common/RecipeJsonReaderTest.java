@@ -0,0 +1,84 @@
+package recipe.common;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the streaming reader reads recipes exactly as databind does
+ */
+class RecipeJsonReaderTest {
+    private static final ObjectMapper DATABIND = new ObjectMapper();
+
+    /**
+     * Every stored recipe in recipes/ reads the same through both readers
+     */
+    @TestFactory
+    Stream<DynamicTest> readsStoredRecipesLikeDatabind() {
+        File[] files = new File("recipes").listFiles((dir, name) -> name.endsWith(".json"));
+        assertTrue(files != null && files.length > 0, "No recipes found in recipes/");
+        Arrays.sort(files);
+
+        return Arrays.stream(files).map(file -> DynamicTest.dynamicTest(file.getName(), () ->
+            assertSameRecipe(DATABIND.readValue(file, Recipe.class), RecipeJsonReader.read(file))));
+    }
+
+    @Test
+    void readsEdgeCasesLikeDatabind() throws IOException {
+        String[] documents = {
+            // Both prime keys, in either order
+            "{\"name\":\"a\",\"ingredients\":[{\"name\":\"x\",\"prime\":false,\"isPrime\":true}],\"created\":\"c\"}",
+            "{\"name\":\"a\",\"ingredients\":[{\"name\":\"x\",\"isPrime\":true,\"prime\":false}],\"created\":\"c\"}",
+            // Null lists and a null ingredient
+            "{\"name\":\"a\",\"ingredients\":null,\"instructions\":null,\"created\":\"c\"}",
+            "{\"name\":\"a\",\"ingredients\":[null],\"created\":\"c\"}",
+            // Numbers and booleans written as text or numbers
+            "{\"name\":\"a\",\"servings\":\"4\",\"ingredients\":[{\"name\":\"x\",\"amount\":\"1.5\",\"isPrime\":\"true\"}],\"created\":\"c\"}",
+            "{\"name\":\"a\",\"servings\":2,\"ingredients\":[{\"name\":\"x\",\"amount\":3,\"isPrime\":1}],\"created\":\"c\"}",
+            // A slug that no longer matches the name is kept as stored
+            "{\"name\":\"  chicken SOUP \",\"slug\":\"old-slug\",\"created\":\"c\"}"
+        };
+        for (String json : documents) {
+            assertSameRecipe(DATABIND.readValue(json, Recipe.class), RecipeJsonReader.read(json));
+        }
+    }
+
+    @Test
+    void skipsUnknownFields() throws IOException {
+        Recipe recipe = RecipeJsonReader.read(
+            "{\"name\":\"a\",\"extra\":{\"nested\":[1,2]},\"ingredients\":[{\"name\":\"x\",\"note\":\"n\"}],\"created\":\"c\"}");
+        assertEquals("A", recipe.getName());
+        assertEquals("X", recipe.getIngredients().get(0).getName());
+    }
+
+    @Test
+    void rejectsTextThatIsNotABoolean() {
+        IOException error = assertThrows(IOException.class, () ->
+            RecipeJsonReader.read("{\"name\":\"a\",\"ingredients\":[{\"name\":\"x\",\"isPrime\":\"yes\"}]}"));
+        assertTrue(error.getMessage().startsWith("Expected a boolean for \"isPrime\""), error.getMessage());
+    }
+
+    @Test
+    void fillsInMissingCreatedTime() throws IOException {
+        assertFalse(RecipeJsonReader.read("{\"name\":\"a\"}").getCreated().isEmpty());
+    }
+
+    // Compares everything the recipe would be saved with
+    private static void assertSameRecipe(Recipe expected, Recipe actual) throws IOException {
+        JsonNode expectedJson = DATABIND.readTree(expected.toCompactJsonBytes());
+        JsonNode actualJson = DATABIND.readTree(actual.toCompactJsonBytes());
+        assertEquals(expectedJson, actualJson);
+    }
+}
@@ -0,0 +1,88 @@
+package recipe.common;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.constraints.CharRange;
+import net.jqwik.api.constraints.StringLength;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the single-pass slugger gives exactly what the original regex
+ * implementation gave, for ASCII names (the fast path) and anything else
+ */
+class SlugUtilsTest {
+    private static final Pattern INVALID_CHARS = Pattern.compile("[^a-zA-Z0-9\\s-]");
+    private static final Pattern MULTIPLE_SPACES = Pattern.compile("\\s+");
+
+    @Property(tries = 5000)
+    void matchesOriginalForAscii(@ForAll @CharRange(from = 0, to = 127) @StringLength(max = 40) String name) {
+        assertEquals(originalToSlug(name), SlugUtils.toSlug(name));
+    }
+
+    @Property(tries = 5000)
+    void matchesOriginalForRecipeLikeNames(@ForAll("recipeNames") String name) {
+        assertEquals(originalToSlug(name), SlugUtils.toSlug(name));
+    }
+
+    @Property(tries = 2000)
+    void matchesOriginalForAnyText(@ForAll @StringLength(max = 40) String name) {
+        assertEquals(originalToSlug(name), SlugUtils.toSlug(name));
+    }
+
+    @Example
+    void matchesOriginalForEdgeCases() {
+        String[] names = {
+            null, "", " ", "\t\n", "Chicken Soup", "  Mom's  Best -- Chili!  ", "-leading and trailing-",
+            "a\u000Bb\fc\rd", "a \u0001 b", "\u001Fpadded\u001F", "Crème brûlée", "Ünïcödé only",
+            "ﬁsh", "İstanbul pilaf", "x".repeat(5000)
+        };
+        for (String name : names) {
+            assertEquals(originalToSlug(name), SlugUtils.toSlug(name), String.valueOf(name));
+        }
+    }
+
+    @Example
+    void matchesOriginalInTurkishLocale() {
+        Locale previous = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            for (String name : new String[] {"TITLE CASE", "Istanbul Pilaf", "mixed İ and I"}) {
+                assertEquals(originalToSlug(name), SlugUtils.toSlug(name), name);
+            }
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    // Words, punctuation and whitespace runs, with the odd accented or control character
+    @Provide
+    Arbitrary<String> recipeNames() {
+        Arbitrary<String> word = Arbitraries.strings().withCharRange('a', 'z').withCharRange('A', 'Z')
+            .withCharRange('0', '9').ofMinLength(1).ofMaxLength(8);
+        Arbitrary<String> separator = Arbitraries.of(" ", "  ", "\t", "-", " - ", "'", "!", ",", ".", "&", "/",
+            "\n", "\u000B", "\u0001", "é", "ß", " ", "_");
+        return Arbitraries.oneOf(word, separator).list().ofMaxSize(10).map(parts -> String.join("", parts));
+    }
+
+    // SlugUtils.toSlug as it was before the single-pass rewrite
+    private static String originalToSlug(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return "unnamed";
+        }
+
+        return name.trim()
+                .toLowerCase()
+                .replaceAll(INVALID_CHARS.pattern(), "") // Remove special chars
+                .replaceAll(MULTIPLE_SPACES.pattern(), " ") // Normalize spaces
+                .trim()
+                .replace(" ", "-"); // Replace spaces with hyphens
+    }
+}
@@ -0,0 +1,75 @@
+package recipe.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks which unit scaled amounts are normalized into
+ */
+class UnitRegistryTest {
+
+    @Test
+    void promotesAmountsThatLandOnKitchenFractions() {
+        assertBestUnit("cup", 48, "tsp");
+        assertBestUnit("cup", 12, "tbsp");
+        assertBestUnit("cup", 4, "tbsp");
+        assertBestUnit("quart", 4, "cups");
+        assertBestUnit("quart", 6, "cups");
+        assertBestUnit("tbsp", 3, "tsp");
+        assertBestUnit("tbsp", 0.125, "cup");
+        assertBestUnit("lb", 24, "oz");
+        assertBestUnit("kg", 1500, "g");
+        assertBestUnit("l", 2250, "ml");
+    }
+
+    @Test
+    void keepsTheUnitWhenNoUnitGivesAKitchenFraction() {
+        // 9 tbsp is 0.5625 cups
+        assertBestUnit("tbsp", 9, "tbsp");
+        assertBestUnit("tbsp", 5, "tbsp");
+        assertBestUnit("cup", 0.3, "cup");
+        assertBestUnit("oz", 10, "oz");
+        assertBestUnit("g", 333, "g");
+        assertBestUnit("tsp", 0.1, "tsp");
+    }
+
+    @Test
+    void keepsAmountsUnderTheSmallestSensibleUnit() {
+        // A quarter of a tbsp, and a quarter of a litre, read better as they are
+        assertBestUnit("tsp", 0.75, "tsp");
+        assertBestUnit("ml", 250, "ml");
+    }
+
+    @Test
+    void keepsUnknownUnitsAndOddAmounts() {
+        assertEquals(UnitRegistry.UNKNOWN, UnitRegistry.bestUnit(3, UnitRegistry.idOf("cloves")));
+        int tsp = UnitRegistry.idOf("tsp");
+        assertEquals(tsp, UnitRegistry.bestUnit(0, tsp));
+        assertEquals(tsp, UnitRegistry.bestUnit(-48, tsp));
+        assertEquals(tsp, UnitRegistry.bestUnit(Double.NaN, tsp));
+        assertEquals(tsp, UnitRegistry.bestUnit(Double.POSITIVE_INFINITY, tsp));
+    }
+
+    @Test
+    void scalingMisoSoupKeepsTablespoons() {
+        Ingredient scaled = new Ingredient("Miso paste", 3, "tbsp").scaled(3, true);
+        assertEquals(9, scaled.getAmount());
+        assertEquals("tbsp", scaled.getUnit());
+    }
+
+    @Test
+    void readsUnitSpellings() {
+        assertEquals("tsp", UnitRegistry.getName(UnitRegistry.idOf("t")));
+        assertEquals("tbsp", UnitRegistry.getName(UnitRegistry.idOf("T")));
+        assertEquals("tbsp", UnitRegistry.getName(UnitRegistry.idOf(" Tablespoons. ")));
+        assertEquals("fl oz", UnitRegistry.getName(UnitRegistry.idOf("fluid   ounces")));
+        assertEquals(UnitRegistry.UNKNOWN, UnitRegistry.idOf("large"));
+        assertEquals(UnitRegistry.UNKNOWN, UnitRegistry.idOf(null));
+    }
+
+    private static void assertBestUnit(String expected, double amount, String unit) {
+        int best = UnitRegistry.bestUnit(amount, UnitRegistry.idOf(unit));
+        assertEquals(expected, UnitRegistry.getName(best), amount + " " + unit);
+    }
+}
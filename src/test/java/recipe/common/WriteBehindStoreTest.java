@@ -0,0 +1,247 @@
+package recipe.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks batching, coalescing, failure handling and read isolation of the write-behind queue
+ * against an in-memory store whose batches can be made to fail or wait
+ */
+class WriteBehindStoreTest {
+
+    @Test
+    void coalescesABurstIntoOneBatch() throws IOException {
+        FakeStore backing = new FakeStore();
+        backing.write("c.json", recipe("C", 1));
+        WriteBehindStore store = WriteBehindStore.forStore(backing);
+
+        store.write("a.json", recipe("A", 1));
+        store.write("b.json", recipe("B", 1));
+        store.write("a.json", recipe("A", 2));
+        assertTrue(store.delete("c.json"));
+        store.flush();
+
+        assertEquals(1, backing.batches.size());
+        assertEquals(List.of("b.json", "a.json", "c.json"), new ArrayList<>(backing.batches.get(0).keySet()));
+        assertEquals(2.0, backing.read("a.json").getServings());
+        assertFalse(backing.exists("c.json"));
+        assertEquals(List.of("a.json", "b.json"), backing.listFilenames());
+    }
+
+    @Test
+    void pendingChangesAreVisibleAndReadsAreSnapshots() throws Exception {
+        FakeStore backing = new FakeStore();
+        backing.write("old.json", recipe("Old", 1));
+        WriteBehindStore store = WriteBehindStore.forStore(backing);
+        backing.hold();
+
+        Recipe recipe = recipe("A", 2);
+        store.write("a.json", recipe);
+        recipe.setServings(5);
+        assertTrue(store.delete("old.json"));
+
+        // Whether still pending or in the held batch, the queue answers for the change
+        assertTrue(store.exists("a.json"));
+        assertFalse(store.exists("old.json"));
+        assertEquals(List.of("a.json"), store.listFilenames());
+        assertThrows(IOException.class, () -> store.read("old.json"));
+        assertEquals(-1, store.version("old.json"));
+        assertFalse(store.create("a.json", recipe("Other", 1)));
+
+        Recipe first = store.read("a.json");
+        assertEquals(2.0, first.getServings());
+        first.setServings(7);
+        Recipe second = store.read("a.json");
+        assertNotSame(first, second);
+        assertEquals(2.0, second.getServings());
+
+        long pendingVersion = store.version("a.json");
+        assertTrue(pendingVersion < -1);
+        store.write("a.json", recipe("A", 3));
+        assertNotEquals(pendingVersion, store.version("a.json"));
+
+        backing.release();
+        store.flush();
+        assertEquals(3.0, backing.read("a.json").getServings());
+        assertEquals(backing.version("a.json"), store.version("a.json"));
+        assertFalse(backing.exists("old.json"));
+    }
+
+    @Test
+    void flushFailsWhenABatchFailsAndSucceedsOnceItIsRetried() throws IOException {
+        FakeStore backing = new FakeStore();
+        WriteBehindStore store = WriteBehindStore.forStore(backing);
+        backing.failNextBatch();
+
+        store.write("a.json", recipe("A", 1));
+        assertThrows(IOException.class, store::flush);
+        assertTrue(store.exists("a.json"));
+        assertEquals(1.0, store.read("a.json").getServings());
+
+        store.flush();
+        assertEquals(2, backing.batches.size());
+        assertEquals(1.0, backing.read("a.json").getServings());
+    }
+
+    @Test
+    void failedBatchIsRetriedAheadOfChangesMadeMeanwhile() throws Exception {
+        FakeStore backing = new FakeStore();
+        WriteBehindStore store = WriteBehindStore.forStore(backing);
+        backing.hold();
+        backing.failNextBatch();
+
+        store.write("a.json", recipe("A", 1));
+        store.write("b.json", recipe("B", 1));
+        assertTrue(backing.awaitBatch());
+        // Queued while the first batch is in flight; they must win over it once it fails
+        store.write("a.json", recipe("A", 2));
+        store.write("c.json", recipe("C", 1));
+        backing.release();
+        try {
+            store.flush();
+        } catch (IOException e) {
+            // Expected when the failure lands while waiting; the retry is what is checked
+            store.flush();
+        }
+
+        assertEquals(List.of("a.json", "b.json"), new ArrayList<>(backing.batches.get(0).keySet()));
+        Map<String, Double> retried = backing.batches.get(1);
+        assertEquals(List.of("b.json", "a.json", "c.json"), new ArrayList<>(retried.keySet()));
+        assertEquals(2.0, retried.get("a.json"));
+        assertEquals(2.0, backing.read("a.json").getServings());
+        assertEquals(List.of("a.json", "b.json", "c.json"), backing.listFilenames());
+    }
+
+    private static Recipe recipe(String name, double servings) {
+        Recipe recipe = new Recipe(name, servings);
+        recipe.addIngredient(new Ingredient("Water", 1, "cup"));
+        return recipe;
+    }
+
+    /**
+     * In-memory store that records every batch and can fail the next one or hold batches until released
+     */
+    private static final class FakeStore implements RecipeStore {
+        private final Path location = Paths.get("fake-store-" + UUID.randomUUID());
+        private final Map<String, byte[]> recipes = new TreeMap<>();
+        private final Map<String, Long> versions = new TreeMap<>();
+        // Every batch passed to writeBatch, failed ones included, with the servings of each recipe
+        final List<Map<String, Double>> batches = new ArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private volatile CountDownLatch gate;
+        private boolean failNext;
+        private long nextVersion;
+
+        void hold() {
+            gate = new CountDownLatch(1);
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        // Waits until the first batch has reached writeBatch
+        boolean awaitBatch() throws InterruptedException {
+            return entered.await(10, TimeUnit.SECONDS);
+        }
+
+        synchronized void failNextBatch() {
+            failNext = true;
+        }
+
+        @Override
+        public Path getLocation() {
+            return location;
+        }
+
+        @Override
+        public synchronized List<String> listFilenames() {
+            return new ArrayList<>(recipes.keySet());
+        }
+
+        @Override
+        public synchronized boolean exists(String filename) {
+            return recipes.containsKey(filename);
+        }
+
+        @Override
+        public synchronized Recipe read(String filename) throws IOException {
+            byte[] json = recipes.get(filename);
+            if (json == null) {
+                throw new IOException("Recipe not found: " + filename);
+            }
+            return Recipe.fromJsonBytes(json);
+        }
+
+        @Override
+        public synchronized void write(String filename, Recipe recipe) throws IOException {
+            recipes.put(filename, recipe.toCompactJsonBytes());
+            versions.put(filename, ++nextVersion);
+        }
+
+        @Override
+        public void writeBatch(Map<String, Recipe> changes) throws IOException {
+            entered.countDown();
+            CountDownLatch waitFor = gate;
+            if (waitFor != null) {
+                try {
+                    waitFor.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IOException("Interrupted", e);
+                }
+            }
+            synchronized (this) {
+                Map<String, Double> batch = new LinkedHashMap<>();
+                for (Map.Entry<String, Recipe> change : changes.entrySet()) {
+                    batch.put(change.getKey(), change.getValue() == null ? null : change.getValue().getServings());
+                }
+                batches.add(batch);
+                if (failNext) {
+                    failNext = false;
+                    throw new IOException("Disk full");
+                }
+                RecipeStore.super.writeBatch(changes);
+            }
+        }
+
+        @Override
+        public synchronized boolean delete(String filename) {
+            versions.remove(filename);
+            return recipes.remove(filename) != null;
+        }
+
+        @Override
+        public synchronized long version(String filename) {
+            Long version = versions.get(filename);
+            return version != null ? version : -1;
+        }
+
+        @Override
+        public String describe(String filename) {
+            return location + "/" + filename;
+        }
+
+        @Override
+        public boolean watch(ChangeListener listener) {
+            return false;
+        }
+    }
+}